@@ -0,0 +1,128 @@
+package com.github.tymefly.eeprom.builder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.annotation.Nonnull;
+
+import com.github.tymefly.eeprom.builder.exception.IoException;
+import com.github.tymefly.eeprom.builder.project.global.GlobalData;
+import com.github.tymefly.eeprom.builder.project.global.GlobalDataFactory;
+import com.github.tymefly.eeprom.builder.project.input.InputPins;
+import com.github.tymefly.eeprom.builder.project.input.InputPinsFactory;
+import com.github.tymefly.eeprom.builder.project.output.OutputPins;
+import com.github.tymefly.eeprom.builder.project.output.OutputPinsFactory;
+import com.github.tymefly.eeprom.builder.utils.IoUtils;
+import org.apache.logging.log4j.ThreadContext;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+
+/**
+ * Shared benchmark state that describes a single sample project.
+ * Project locations are relative to the root of the repository, which can be overridden with the
+ * {@value #ROOT_PROPERTY} system property.
+ */
+@State(Scope.Benchmark)
+public class ProjectState {
+    /** System property used to set the root of the repository */
+    public static final String ROOT_PROPERTY = "asm.root";
+
+    @Param({"src/project/ben-eater", "src/project/template", "benchmark/project/worst-case"})
+    public String project;
+
+    private File projectDirectory;
+    private File targetDirectory;
+    private GlobalData globalData;
+    private InputPins inputPins;
+    private OutputPins outputPins;
+
+
+    /**
+     * Parse the project settings and pin definitions
+     * @throws IOException if the target directory could not be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        targetDirectory = Files.createTempDirectory("asm-benchmark").toFile();
+        projectDirectory = new File(System.getProperty(ROOT_PROPERTY, "."), project);
+
+        if (!projectDirectory.isDirectory()) {
+            throw new IoException("Invalid project directory " + projectDirectory.getAbsolutePath());
+        }
+
+        ThreadContext.put("target.dir", targetDirectory.getAbsolutePath().replace('\\', '/'));
+
+        globalData = GlobalDataFactory.parse(projectDirectory);
+        inputPins = InputPinsFactory.parse(projectDirectory, globalData.getMaxAddressBit());
+        outputPins = OutputPinsFactory.parse(projectDirectory);
+    }
+
+
+    /**
+     * Remove all the files generated by the benchmarks
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        IoUtils.clearDirectory(targetDirectory);
+
+        if (!targetDirectory.delete()) {
+            throw new IoException("Failed to delete " + targetDirectory.getAbsolutePath());
+        }
+    }
+
+
+    /**
+     * Returns the directory that contains the project source code
+     * @return the directory that contains the project source code
+     */
+    @Nonnull
+    public File getProjectDirectory() {
+        return projectDirectory;
+    }
+
+
+    /**
+     * Returns a temporary directory that generated files can be written to
+     * @return a temporary directory that generated files can be written to
+     */
+    @Nonnull
+    public File getTargetDirectory() {
+        return targetDirectory;
+    }
+
+
+    /**
+     * Returns the project wide settings
+     * @return the project wide settings
+     */
+    @Nonnull
+    public GlobalData getGlobalData() {
+        return globalData;
+    }
+
+
+    /**
+     * Returns a description of all the address pins
+     * @return a description of all the address pins
+     */
+    @Nonnull
+    public InputPins getInputPins() {
+        return inputPins;
+    }
+
+
+    /**
+     * Returns a description of all the data pins
+     * @return a description of all the data pins
+     */
+    @Nonnull
+    public OutputPins getOutputPins() {
+        return outputPins;
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.tymefly.eeprom.builder.io.source;
+
+import java.util.concurrent.TimeUnit;
+
+import com.github.tymefly.eeprom.builder.ProjectState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+
+/**
+ * Benchmark the loading and cleaning of the project source files
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FileLoaderBenchmark {
+    /**
+     * Read all of the project source files
+     * @param state     The project to read
+     * @param sink      Consumes the loaded files
+     */
+    @Benchmark
+    public void read(ProjectState state, Blackhole sink) {
+        for (var file : ProjectFile.values()) {
+            sink.consume(new FileLoader(state.getProjectDirectory(), file).read());
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.github.tymefly.eeprom.builder.io.target.eeprom;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+
+import com.github.tymefly.eeprom.builder.ProjectState;
+import com.github.tymefly.eeprom.builder.io.target.eeprom.map.MapWriter;
+import com.github.tymefly.eeprom.builder.io.target.eeprom.srec.SRecWriter;
+import com.github.tymefly.eeprom.builder.project.code.Compiler;
+import com.github.tymefly.eeprom.builder.project.output.Rom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmark each of the writers that generate the EEPROM files
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ContentWriterBenchmark {
+    /**
+     * Every image and entry generated by the compiled project
+     */
+    @State(Scope.Benchmark)
+    public static class RecordedState implements Content {
+        private final Map<Rom, ByteBuffer> images = new EnumMap<>(Rom.class);
+        private final List<EpromData> entries = new ArrayList<>();
+
+
+        /**
+         * Compile the project and record every entry it generates
+         * @param project       The project to compile
+         */
+        @Setup(Level.Trial)
+        public void setUp(@Nonnull ProjectState project) {
+            new Compiler.Builder(project.getProjectDirectory())
+                    .withPins(project.getInputPins(), project.getOutputPins())
+                    .compile()
+                    .getMicroCode()
+                    .generate(this);
+        }
+
+
+        @Override
+        public void image(@Nonnull Rom rom, @Nonnull ByteBuffer image) {
+            images.put(rom, image);
+        }
+
+        @Override
+        public boolean needsEntries() {
+            return true;
+        }
+
+        @Nonnull
+        @Override
+        public Entry entry() {
+            return new RecordedEntry(entries);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+
+    /**
+     * A single entry that is recorded so that it can be replayed to each writer
+     */
+    private static class RecordedEntry implements Content.Entry, EpromData {
+        private final List<EpromData> entries;
+        private final Map<Rom, Byte> data = new EnumMap<>(Rom.class);
+        private int opCode;
+        private int mCycle;
+        private int address;
+        private int flags;
+        private Supplier<String> annotation = () -> "";
+
+
+        RecordedEntry(@Nonnull List<EpromData> entries) {
+            this.entries = entries;
+        }
+
+
+        @Nonnull
+        @Override
+        public Content.Entry forOpCode(int code) {
+            this.opCode = code;
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public Content.Entry forMCycle(int mCycle) {
+            this.mCycle = mCycle;
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public Content.Entry forFlags(int flags) {
+            this.flags = flags;
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public Content.Entry forAddress(int address) {
+            this.address = address;
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public Content.Entry toData(@Nonnull Rom rom, byte value) {
+            data.put(rom, value);
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public Content.Entry withAnnotation(@Nonnull Supplier<String> annotation) {
+            this.annotation = annotation;
+            return this;
+        }
+
+        @Override
+        public void apply() {
+            entries.add(this);
+        }
+
+        @Override
+        public int getOpCode() {
+            return opCode;
+        }
+
+        @Override
+        public int getMCycle() {
+            return mCycle;
+        }
+
+        @Override
+        public int getAddress() {
+            return address;
+        }
+
+        @Nonnull
+        @Override
+        public Map<Rom, Byte> getData() {
+            return Collections.unmodifiableMap(data);
+        }
+
+        @Override
+        public int getFlags() {
+            return flags;
+        }
+
+        @Nonnull
+        @Override
+        public String getAnnotation() {
+            return annotation.get();
+        }
+    }
+
+
+    /**
+     * Write the Eeprom map file
+     * @param project       The project the entries were generated from
+     * @param recorded      Every entry in the project
+     */
+    @Benchmark
+    public void mapWriter(ProjectState project, RecordedState recorded) {
+        write(new MapWriter(project.getTargetDirectory(),
+                            project.getGlobalData(),
+                            project.getInputPins(),
+                            project.getOutputPins()),
+              recorded);
+    }
+
+
+    /**
+     * Write an S-Record file for every EEPROM
+     * @param project       The project the entries were generated from
+     * @param recorded      Every entry in the project
+     */
+    @Benchmark
+    public void sRecWriter(ProjectState project, RecordedState recorded) {
+        for (var rom : project.getOutputPins().getRoms()) {
+            write(new SRecWriter(project.getTargetDirectory(), project.getGlobalData(), rom), recorded);
+        }
+    }
+
+
+    private void write(@Nonnull ContentWriter writer, @Nonnull RecordedState recorded) {
+        writer.initialise();
+        recorded.images.forEach(writer::applyImage);
+
+        if (writer.needsEntries()) {
+            recorded.entries.forEach(writer::apply);
+        }
+
+        writer.close();
+    }
+}
@@ -0,0 +1,185 @@
+package com.github.tymefly.eeprom.builder.project.code;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+
+import com.github.tymefly.eeprom.builder.ProjectState;
+import com.github.tymefly.eeprom.builder.io.target.eeprom.Content;
+import com.github.tymefly.eeprom.builder.project.output.Rom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+
+/**
+ * Benchmark each of the stages that compile the source code into EEPROM content
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CompilerBenchmark {
+    /**
+     * The compiled MicroCode for a project
+     */
+    @State(Scope.Benchmark)
+    public static class CompiledState {
+        private MicroCode microCode;
+
+
+        /**
+         * Compile the project and build the EEPROM images so that later stages can be measured in isolation
+         * @param project       The project to compile
+         */
+        @Setup(Level.Trial)
+        public void setUp(@Nonnull ProjectState project) {
+            microCode = new Compiler.Builder(project.getProjectDirectory())
+                    .withPins(project.getInputPins(), project.getOutputPins())
+                    .compile()
+                    .getMicroCode();
+            microCode.generate(new NullContent(null));
+        }
+    }
+
+
+    /**
+     * A Content sink that discards everything it is given
+     */
+    private static class NullContent implements Content, Content.Entry {
+        private final Blackhole sink;
+
+        NullContent(Blackhole sink) {
+            this.sink = sink;
+        }
+
+
+        @Override
+        public void image(@Nonnull Rom rom, @Nonnull ByteBuffer image) {
+            if (sink != null) {
+                sink.consume(image);
+            }
+        }
+
+        @Override
+        public boolean needsEntries() {
+            return true;
+        }
+
+        @Nonnull
+        @Override
+        public Entry entry() {
+            return this;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Nonnull
+        @Override
+        public Entry forOpCode(int code) {
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public Entry forMCycle(int mCycle) {
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public Entry forFlags(int flags) {
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public Entry forAddress(int address) {
+            if (sink != null) {
+                sink.consume(address);
+            }
+
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public Entry toData(@Nonnull Rom rom, byte value) {
+            if (sink != null) {
+                sink.consume(value);
+            }
+
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public Entry withAnnotation(@Nonnull Supplier<String> annotation) {
+            return this;
+        }
+
+        @Override
+        public void apply() {
+        }
+    }
+
+
+    /**
+     * Parse code.txt and build the MicroCode model, including the CodeMap
+     * @param project       The project to compile
+     * @return              The compiler
+     */
+    @Benchmark
+    public Compiler compile(ProjectState project) {
+        return new Compiler.Builder(project.getProjectDirectory())
+                .withPins(project.getInputPins(), project.getOutputPins())
+                .compile();
+    }
+
+
+    /**
+     * Map every OpCode and flag state on to an instruction
+     * @param compiled      The compiled project
+     * @return              The code map
+     */
+    @Benchmark
+    public CodeMap buildCodeMap(CompiledState compiled) {
+        return compiled.microCode.codeMapBuilder().build();
+    }
+
+
+    /**
+     * Build the image for every EEPROM
+     * @param compiled      The compiled project
+     * @return              The EEPROM images
+     */
+    @Benchmark
+    public EepromMap buildEepromMap(CompiledState compiled) {
+        return compiled.microCode.buildEepromMap();
+    }
+
+
+    /**
+     * Pass every address in the (cached) EEPROM images to a content writer
+     * @param compiled      The compiled project
+     * @param sink          Consumes the generated content
+     */
+    @Benchmark
+    public void generate(CompiledState compiled, Blackhole sink) {
+        compiled.microCode.generate(new NullContent(sink));
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.tymefly.eeprom.builder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+
+
+/**
+ * A thin client for the build daemon. The command line is sent to the daemon, the output of the build is copied to
+ * the console and the client exits with the status of the build:
+ * <pre>
+ *     java com.github.tymefly.eeprom.builder.BuildClient PORT [compiler arguments...]
+ * </pre>
+ * This class does not use the logging framework or the command line parser so that it starts as quickly as possible.
+ * @see BuildServer
+ */
+public class BuildClient {
+    private static final int FAILED = 1;
+
+    private BuildClient() {
+    }
+
+
+    /**
+     * Client entry point
+     * @param args          The port the daemon is listening on followed by the compiler's command line arguments
+     */
+    public static void main(@Nonnull String[] args) {
+        int status;
+
+        if (args.length == 0) {
+            System.err.println("Usage: java " + BuildClient.class.getName() + " PORT [compiler arguments...]");
+            status = FAILED;
+        } else if (Arrays.stream(args).anyMatch(a -> a.contains("\n") || a.contains("\r"))) {
+            System.err.println("Error: Arguments sent to the build daemon can not contain line breaks");
+            status = FAILED;
+        } else {
+            status = send(args[0], Arrays.copyOfRange(args, 1, args.length));
+        }
+
+        System.exit(status);
+    }
+
+
+    private static int send(@Nonnull String port, @Nonnull String[] args) {
+        int status = FAILED;
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(port))) {
+            PrintStream out = new PrintStream(socket.getOutputStream(), false, StandardCharsets.UTF_8);
+            BufferedReader in =
+                new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+            out.println(new File("").getAbsolutePath());
+            out.println(args.length);
+            Arrays.stream(args).forEach(out::println);
+            out.flush();
+
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                if (line.startsWith(BuildServer.OUTPUT)) {
+                    System.out.println(line.substring(BuildServer.OUTPUT.length()));
+                } else if (line.startsWith(BuildServer.EXIT)) {
+                    status = Integer.parseInt(line.substring(BuildServer.EXIT.length()));
+                } else {
+                    System.err.println("Error: Unexpected reply from the build daemon: " + line);
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Error: Invalid port " + port);
+        } catch (IOException e) {
+            System.err.println("Error: Failed to contact the build daemon on port " + port + ": " + e.getMessage());
+        }
+
+        return status;
+    }
+}
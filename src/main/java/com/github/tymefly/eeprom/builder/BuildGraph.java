@@ -0,0 +1,193 @@
+package com.github.tymefly.eeprom.builder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.github.tymefly.eeprom.builder.config.Config;
+import com.github.tymefly.eeprom.builder.exception.InternalException;
+import com.github.tymefly.eeprom.builder.io.source.DirectorySource;
+import com.github.tymefly.eeprom.builder.io.source.PreloadedSource;
+import com.github.tymefly.eeprom.builder.io.source.ProjectSource;
+import com.github.tymefly.eeprom.builder.io.target.BuildCache;
+import com.github.tymefly.eeprom.builder.io.target.eeprom.ContentGenerator;
+import com.github.tymefly.eeprom.builder.io.target.report.Report;
+import com.github.tymefly.eeprom.builder.io.target.report.Reporter;
+import com.github.tymefly.eeprom.builder.project.code.Compiler;
+import com.github.tymefly.eeprom.builder.project.code.MicroCode;
+import com.github.tymefly.eeprom.builder.project.global.GlobalData;
+import com.github.tymefly.eeprom.builder.project.global.GlobalDataFactory;
+import com.github.tymefly.eeprom.builder.project.input.InputPins;
+import com.github.tymefly.eeprom.builder.project.input.InputPinsFactory;
+import com.github.tymefly.eeprom.builder.project.output.OutputPins;
+import com.github.tymefly.eeprom.builder.project.output.OutputPinsFactory;
+
+/**
+ * The tasks that build a single project, arranged by their dependencies. Each task is started as soon as the tasks
+ * it depends on have completed, so the source files are loaded and parsed at the same time, and each report is
+ * written while the EEPROM images are being generated. If there is a previous build of the project then its pins are
+ * reused unless their source has changed.
+ * <br>
+ * If the build is limited to a single thread then every task is run on the calling thread, in the same order as
+ * they would be run by a sequential build.
+ */
+class BuildGraph {
+    private final Config config;
+    private final File projectDirectory;
+    private final File targetDirectory;
+    private final BuildCache cache;
+
+
+    /**
+     * Constructor
+     * @param config            The parsed command line
+     * @param projectDirectory  The directory that contains the project source code
+     * @param targetDirectory   The directory that the generated files are written to
+     * @param cache             The files in the target directory that can be reused. This must already be prepared
+     */
+    BuildGraph(@Nonnull Config config,
+               @Nonnull File projectDirectory,
+               @Nonnull File targetDirectory,
+               @Nonnull BuildCache cache) {
+        this.config = config;
+        this.projectDirectory = projectDirectory;
+        this.targetDirectory = targetDirectory;
+        this.cache = cache;
+    }
+
+
+    /**
+     * Run all the tasks and wait for them to complete. If any task fails then its error is re-thrown once the
+     * tasks that have already been started have completed.
+     * @param previous      The compiler for the last successful build of the project, or {@literal null}
+     * @return the compiler for this build
+     */
+    @Nonnull
+    Compiler run(@Nullable Compiler previous) {
+        int threads = config.getThreads();
+        ExecutorService pool = (threads == 1 ? null : Executors.newFixedThreadPool(threads));
+        Executor executor = (pool == null ? Runnable::run : pool);
+
+        try {
+            return join(schedule(executor, previous));
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+
+    @Nonnull
+    private CompletableFuture<Compiler> schedule(@Nonnull Executor executor, @Nullable Compiler previous) {
+        ProjectSource source = new PreloadedSource(new DirectorySource(projectDirectory), executor);
+        InputPins previousInputs = (previous == null ? null : previous.getInputPins());
+        OutputPins previousOutputs = (previous == null ? null : previous.getOutputPins());
+        CompletableFuture<GlobalData> globalData =
+            CompletableFuture.supplyAsync(() -> GlobalDataFactory.parse(source), executor);
+        CompletableFuture<InputPins> inputPins = globalData.thenApplyAsync(
+            g -> InputPinsFactory.parse(source, g.getMaxAddressBit(), previousInputs), executor);
+        CompletableFuture<OutputPins> outputPins =
+            CompletableFuture.supplyAsync(() -> OutputPinsFactory.parse(source, previousOutputs), executor);
+        CompletableFuture<Compiler> compiler = inputPins.thenCombineAsync(outputPins,
+            (i, o) -> new Compiler.Builder(source)
+                .withPins(i, o)
+                .withThreads(config.getThreads())
+                .withPrevious(previous)
+                .compile(),
+            executor);
+
+        return compiler.thenComposeAsync(c -> generate(join(globalData), c.getMicroCode(), join(inputPins),
+                                                       join(outputPins), executor), executor)
+            .thenCompose(v -> compiler);
+    }
+
+
+    // The reports are submitted before the EEPROM images so a single threaded build runs them in the usual order
+    @Nonnull
+    private CompletableFuture<Void> generate(@Nonnull GlobalData globalData,
+                                             @Nonnull MicroCode microCode,
+                                             @Nonnull InputPins inputPins,
+                                             @Nonnull OutputPins outputPins,
+                                             @Nonnull Executor executor) {
+        CompletableFuture<Void> reports = (cache.reuse(BuildCache.Stage.REPORTS) ?
+            CompletableFuture.completedFuture(null) :
+            generateReports(microCode, executor));
+        CompletableFuture<Void> content = (cache.reuse(BuildCache.Stage.CONTENT) ?
+            CompletableFuture.completedFuture(null) :
+            CompletableFuture.runAsync(() -> generateRoms(globalData, microCode, inputPins, outputPins), executor));
+
+        return CompletableFuture.allOf(reports, content);
+    }
+
+
+    // Each report is written by its own task
+    @Nonnull
+    private CompletableFuture<Void> generateReports(@Nonnull MicroCode microCode, @Nonnull Executor executor) {
+        Reporter reporter = new Reporter(targetDirectory);
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        for (var report : reporter.getReports()) {
+            tasks.add(CompletableFuture.runAsync(() -> generateReport(microCode, report), executor));
+        }
+
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]))
+            .thenRun(() -> cache.record(BuildCache.Stage.REPORTS, reporter.getFiles()));
+    }
+
+
+    private void generateReport(@Nonnull MicroCode microCode, @Nonnull Report report) {
+        microCode.report(report);
+        report.close();
+    }
+
+
+    private void generateRoms(@Nonnull GlobalData globalData,
+                              @Nonnull MicroCode microCode,
+                              @Nonnull InputPins inputPins,
+                              @Nonnull OutputPins outputPins) {
+        ContentGenerator generator = new ContentGenerator(targetDirectory,
+                                                          globalData,
+                                                          inputPins,
+                                                          outputPins,
+                                                          config.getThreads(),
+                                                          config.getFormats(),
+                                                          config.getRecordLength());
+
+        try {
+            microCode.generate(generator, config.getMapOrder());
+            generator.close();
+        } catch (RuntimeException e) {
+            generator.abort();                          // Stop the writer threads and release their files
+            throw e;
+        }
+
+        cache.record(BuildCache.Stage.CONTENT, generator.getFiles());
+    }
+
+
+    // Wait for a task to complete. If it failed then the original error is re-thrown rather than the wrapper
+    private static <T> T join(@Nonnull CompletableFuture<T> task) {
+        try {
+            return task.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new InternalException("Build failed", cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.github.tymefly.eeprom.builder;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.github.tymefly.eeprom.builder.config.Config;
+import com.github.tymefly.eeprom.builder.exception.IoException;
+import com.github.tymefly.eeprom.builder.project.code.Compiler;
+
+
+/**
+ * A daemon that keeps the compiler loaded between builds, so that a build does not pay the cost of starting a JVM
+ * and initialising the logging. The compiler for the last successful build of each project is kept, so rebuilds are
+ * incremental in the same way as they are in watch mode. Only the most recently built projects are remembered, so the
+ * memory used by the daemon is bounded.
+ * <br>
+ * Requests are accepted on a port on the loopback interface and handled one at a time. The protocol is line based
+ * UTF-8 text, so any client that can open a socket can be used:
+ * <ol>
+ *  <li>The client sends its working directory, the number of command line arguments and then each argument on a
+ *      line of its own. Arguments may be empty, but they can not contain line breaks</li>
+ *  <li>The daemon replies with each line of the console output of the build prefixed with {@code OUT }, followed
+ *      by the line {@code EXIT <status>}. As every line of output is prefixed, the build can not fake the status</li>
+ * </ol>
+ * @see BuildClient
+ */
+class BuildServer implements AutoCloseable {
+    /** Prefix of each line of the console output of the build */
+    static final String OUTPUT = "OUT ";
+
+    /** Prefix of the last line of each reply, which is followed by the exit status of the build */
+    static final String EXIT = "EXIT ";
+
+    private static final int BACKLOG = 16;                  // Maximum number of clients waiting to be served
+    private static final int MAX_ARGUMENTS = 1024;          // Maximum number of arguments in a single request
+    private static final int MAX_PROJECTS = 16;             // Maximum number of projects that are remembered
+
+    private final ServerSocket serverSocket;
+    private final PrintStream console;
+    private final Map<File, AtomicReference<Compiler>> history;
+
+
+    /**
+     * Constructor
+     * @param port          The port on the loopback interface that requests are accepted on, or {@literal 0} to
+     *                      use any free port
+     * @throws IoException  if the port could not be opened
+     */
+    BuildServer(int port) throws IoException {
+        try {
+            this.serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new IoException("Failed to listen on port " + port, e);
+        }
+
+        this.console = System.out;
+        this.history = Collections.synchronizedMap(new History());
+    }
+
+
+    /**
+     * Returns the port that requests are accepted on. This is useful if the daemon was started on port {@literal 0},
+     * in which case the port is chosen by the system
+     * @return the port that requests are accepted on
+     */
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+
+    /**
+     * Serve requests until the daemon is closed
+     */
+    void run() {
+        console.printf("Build daemon listening on port %d%n", getPort());
+
+        while (!serverSocket.isClosed()) {
+            try (Socket client = serverSocket.accept()) {
+                handle(client);
+            } catch (IOException | IoException e) {
+                if (!serverSocket.isClosed()) {
+                    console.printf("Failed to serve request: %s%n", e.getMessage());
+                }
+            }
+        }
+    }
+
+
+    // The console output of the build is sent to the client. Requests are handled one at a time so the
+    // standard streams can be redirected for the duration of the build.
+    private void handle(@Nonnull Socket client) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+        ReplyStream reply = new ReplyStream(new BufferedOutputStream(client.getOutputStream()));
+        PrintStream out = new PrintStream(reply, true, StandardCharsets.UTF_8);
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        boolean done;
+
+        System.setOut(out);
+        System.setErr(out);
+
+        try {
+            File workingDirectory = new File(readLine(in));
+            String[] args = readArgs(in);
+
+            done = (args != null) && build(workingDirectory, args);
+        } catch (RuntimeException e) {                  // The daemon must survive a failed request
+            out.println("**** ERROR ****");
+            e.printStackTrace(out);
+            done = false;
+        } finally {
+            System.setOut(stdout);
+            System.setErr(stderr);
+        }
+
+        out.flush();
+        reply.exit(done ? 0 : 1);
+    }
+
+
+    // Returns null if the argument count is invalid. The count is checked before anything is allocated for it
+    @Nullable
+    private String[] readArgs(@Nonnull BufferedReader in) throws IOException {
+        String count = readLine(in);
+        int size = parseCount(count);
+        String[] args;
+
+        if ((size < 0) || (size > MAX_ARGUMENTS)) {
+            System.err.printf("Error: Invalid argument count %s. A request can have 0 to %d arguments%n",
+                              count,
+                              MAX_ARGUMENTS);
+            args = null;
+        } else {
+            args = new String[size];
+
+            for (int index = 0; index < size; index++) {
+                args[index] = readLine(in);
+            }
+        }
+
+        return args;
+    }
+
+
+    private int parseCount(@Nonnull String count) {
+        int size;
+
+        try {
+            size = Integer.parseInt(count);
+        } catch (NumberFormatException e) {
+            size = -1;
+        }
+
+        return size;
+    }
+
+
+    @Nonnull
+    private String readLine(@Nonnull BufferedReader in) throws IOException {
+        String line = in.readLine();
+
+        if (line == null) {
+            throw new IoException("Incomplete request");
+        }
+
+        return line;
+    }
+
+
+    private boolean build(@Nonnull File workingDirectory, @Nonnull String[] args) {
+        Config config = Config.parse(Main.class, workingDirectory, args);
+        boolean done;
+
+        if (config.requestHelp()) {
+            config.displayUsage();
+            done = true;
+        } else if (!config.isValid()) {
+            done = false;
+        } else if ((config.getDaemonPort() != 0) || config.isWatching()) {
+            System.err.println("Error: The daemon can only build projects");
+            done = false;
+        } else {
+            done = Main.buildAll(config, history);
+        }
+
+        return done;
+    }
+
+
+    /**
+     * Stop accepting requests
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            throw new IoException("Failed to stop the build daemon", e);
+        }
+    }
+
+
+    /**
+     * The compiler for the last successful build of each project, indexed by the absolute path of the project
+     * directory. Once {@link #MAX_PROJECTS} projects are remembered the least recently built project is forgotten.
+     * This is not thread safe, so it must be wrapped in a synchronised map.
+     */
+    private static class History extends LinkedHashMap<File, AtomicReference<Compiler>> {
+        private static final long serialVersionUID = 0x01;
+        private static final int INITIAL_CAPACITY = 32;
+        private static final float LOAD_FACTOR = 0.75f;
+
+
+        History() {
+            super(INITIAL_CAPACITY, LOAD_FACTOR, true);
+        }
+
+
+        @Override
+        protected boolean removeEldestEntry(@Nonnull Map.Entry<File, AtomicReference<Compiler>> eldest) {
+            return (size() > MAX_PROJECTS);
+        }
+    }
+
+
+    /**
+     * The stream that a reply is written to. Each line of output is prefixed with {@link #OUTPUT}, so nothing the
+     * build writes can be mistaken for the exit status. Both {@code \n} and {@code \r} end a line, as they do for
+     * {@link BufferedReader#readLine()}, but {@code \r\n} is a single line break.
+     */
+    private static class ReplyStream extends FilterOutputStream {
+        private static final byte[] PREFIX = OUTPUT.getBytes(StandardCharsets.UTF_8);
+
+        private boolean lineStart = true;
+        private boolean carriageReturn = false;
+
+
+        ReplyStream(@Nonnull OutputStream out) {
+            super(out);
+        }
+
+
+        @Override
+        public void write(int value) throws IOException {
+            if (lineStart && !(carriageReturn && (value == '\n'))) {
+                out.write(PREFIX);
+            }
+
+            out.write(value);
+            carriageReturn = (value == '\r');
+            lineStart = carriageReturn || (value == '\n');
+        }
+
+
+        /**
+         * Complete the reply by sending the exit status of the build on a line of its own
+         * @param status        The exit status of the build
+         * @throws IOException  if the reply could not be sent
+         */
+        void exit(int status) throws IOException {
+            if (!lineStart) {
+                out.write('\n');
+            }
+
+            out.write((EXIT + status + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+    }
+}
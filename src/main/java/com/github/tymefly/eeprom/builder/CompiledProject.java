@@ -0,0 +1,203 @@
+package com.github.tymefly.eeprom.builder;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import com.github.tymefly.eeprom.builder.exception.EepromBuilderException;
+import com.github.tymefly.eeprom.builder.io.source.DirectorySource;
+import com.github.tymefly.eeprom.builder.io.source.ProjectFile;
+import com.github.tymefly.eeprom.builder.io.source.ProjectSource;
+import com.github.tymefly.eeprom.builder.io.source.TextSource;
+import com.github.tymefly.eeprom.builder.io.target.report.CodeSummary;
+import com.github.tymefly.eeprom.builder.project.code.Compiler;
+import com.github.tymefly.eeprom.builder.project.code.MicroCode;
+import com.github.tymefly.eeprom.builder.project.global.GlobalData;
+import com.github.tymefly.eeprom.builder.project.global.GlobalDataFactory;
+import com.github.tymefly.eeprom.builder.project.input.InputPins;
+import com.github.tymefly.eeprom.builder.project.input.InputPinsFactory;
+import com.github.tymefly.eeprom.builder.project.output.OutputPins;
+import com.github.tymefly.eeprom.builder.project.output.OutputPinsFactory;
+import com.github.tymefly.eeprom.builder.project.output.Rom;
+import com.github.tymefly.eeprom.builder.utils.Preconditions;
+import org.apache.logging.log4j.ThreadContext;
+
+/**
+ * An API for embedding the compiler in another application. A project is compiled entirely in memory: the source
+ * files can be read from any {@link ProjectSource}, nothing is written to disc and the JVM is never exited.
+ * Compilation errors are reported by throwing an {@link EepromBuilderException}.
+ * <br>
+ * Each instance is independent, so several projects can be compiled at the same time. The EEPROM images and the
+ * summary are built before the project is returned, so a compiled project never changes and can be shared between
+ * threads.
+ * <br>
+ * Nothing is logged while a project is compiled, so the embedding application doesn't pay for formatting messages
+ * that would only have been written to the command line tool's console or log file.
+ */
+public class CompiledProject {
+    private static final String QUIET = "quiet";                      // Log context key that suppresses all logging
+
+    private final GlobalData globalData;
+    private final InputPins inputPins;
+    private final OutputPins outputPins;
+    private final MicroCode microCode;
+    private final Map<Rom, byte[]> images;
+    private final CodeSummary summary;
+
+
+    private CompiledProject(@Nonnull ProjectSource source, int threads) {
+        this.globalData = GlobalDataFactory.parse(source);
+        this.inputPins = InputPinsFactory.parse(source, globalData.getMaxAddressBit());
+        this.outputPins = OutputPinsFactory.parse(source);
+        this.microCode = new Compiler.Builder(source)
+            .withPins(inputPins, outputPins)
+            .withThreads(threads)
+            .compile()
+            .getMicroCode();
+        this.images = new EnumMap<>(Rom.class);
+        this.summary = new CodeSummary();
+
+        for (var rom : outputPins.getRoms()) {
+            images.put(rom, microCode.getImage(rom));
+        }
+
+        microCode.report(summary);
+    }
+
+
+    /**
+     * Compile a project on the calling thread
+     * @param source        The source of the project files
+     * @return              The compiled project
+     * @throws EepromBuilderException if the project could not be compiled
+     */
+    @Nonnull
+    public static CompiledProject compile(@Nonnull ProjectSource source) throws EepromBuilderException {
+        return compile(source, 1);
+    }
+
+
+    /**
+     * Compile a project
+     * @param source        The source of the project files
+     * @param threads       Number of threads used to build the EEPROM images. This must be at least {@literal 1}
+     * @return              The compiled project
+     * @throws EepromBuilderException if the project could not be compiled
+     */
+    @Nonnull
+    public static CompiledProject compile(@Nonnull ProjectSource source, int threads) throws EepromBuilderException {
+        String quiet = ThreadContext.get(QUIET);
+
+        ThreadContext.put(QUIET, "true");               // Inherited by the threads that build the EEPROM images
+
+        try {
+            return new CompiledProject(source, threads);
+        } finally {
+            if (quiet == null) {
+                ThreadContext.remove(QUIET);
+            } else {
+                ThreadContext.put(QUIET, quiet);
+            }
+        }
+    }
+
+
+    /**
+     * Compile a project from a directory on any file system, including an in-memory file system
+     * @param projectDirectory  The directory that contains the project source code
+     * @return                  The compiled project
+     * @throws EepromBuilderException if the project could not be compiled
+     */
+    @Nonnull
+    public static CompiledProject compile(@Nonnull Path projectDirectory) throws EepromBuilderException {
+        return compile(new DirectorySource(projectDirectory));
+    }
+
+
+    /**
+     * Compile a project from the text of its source files
+     * @param content       The text of each of the project source files
+     * @return              The compiled project
+     * @throws EepromBuilderException if the project could not be compiled
+     */
+    @Nonnull
+    public static CompiledProject compile(@Nonnull Map<ProjectFile, String> content) throws EepromBuilderException {
+        return compile(new TextSource(content));
+    }
+
+
+    /**
+     * Returns the project wide settings
+     * @return the project wide settings
+     */
+    @Nonnull
+    public GlobalData getGlobalData() {
+        return globalData;
+    }
+
+
+    /**
+     * Returns a description of the input (address) pins
+     * @return a description of the input (address) pins
+     */
+    @Nonnull
+    public InputPins getInputPins() {
+        return inputPins;
+    }
+
+
+    /**
+     * Returns a description of the output (data) pins
+     * @return a description of the output (data) pins
+     */
+    @Nonnull
+    public OutputPins getOutputPins() {
+        return outputPins;
+    }
+
+
+    /**
+     * Returns the compiled microcode
+     * @return the compiled microcode
+     */
+    @Nonnull
+    public MicroCode getMicroCode() {
+        return microCode;
+    }
+
+
+    /**
+     * Returns the EEPROMs that have been compiled
+     * @return the EEPROMs that have been compiled
+     */
+    @Nonnull
+    public Collection<Rom> getRoms() {
+        return outputPins.getRoms();
+    }
+
+
+    /**
+     * Returns a copy of the complete image of the {@code rom}, indexed by address
+     * @param rom           One of the EEPROMs returned by {@link #getRoms()}
+     * @return a copy of the complete image of the {@code rom}
+     */
+    @Nonnull
+    public byte[] getImage(@Nonnull Rom rom) {
+        Preconditions.checkArgument(getRoms().contains(rom), "Rom %s is not defined", rom);
+
+        return images.get(rom).clone();
+    }
+
+
+    /**
+     * Returns a description of how the opCodes are used. This holds the same data as the generated text reports
+     * @return a description of how the opCodes are used
+     */
+    @Nonnull
+    public CodeSummary getSummary() {
+        return summary;
+    }
+}
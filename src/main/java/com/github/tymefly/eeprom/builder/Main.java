@@ -1,28 +1,40 @@
 package com.github.tymefly.eeprom.builder;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.Nonnull;
 
 import com.github.tymefly.eeprom.builder.config.Config;
-import com.github.tymefly.eeprom.builder.io.target.eeprom.Content;
-import com.github.tymefly.eeprom.builder.io.target.eeprom.ContentGenerator;
-import com.github.tymefly.eeprom.builder.io.target.report.Reporter;
+import com.github.tymefly.eeprom.builder.io.source.ProjectFile;
+import com.github.tymefly.eeprom.builder.io.source.ProjectWatcher;
+import com.github.tymefly.eeprom.builder.io.target.BuildCache;
 import com.github.tymefly.eeprom.builder.project.code.Compiler;
-import com.github.tymefly.eeprom.builder.project.code.MicroCode;
-import com.github.tymefly.eeprom.builder.project.global.GlobalData;
-import com.github.tymefly.eeprom.builder.project.global.GlobalDataFactory;
-import com.github.tymefly.eeprom.builder.project.input.InputPins;
-import com.github.tymefly.eeprom.builder.project.input.InputPinsFactory;
-import com.github.tymefly.eeprom.builder.project.output.OutputPins;
-import com.github.tymefly.eeprom.builder.project.output.OutputPinsFactory;
-import com.github.tymefly.eeprom.builder.utils.IoUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.routing.RoutingAppender;
 
 
 /**
  * Application entry point
  */
 public class Main {
+    private static final String LOG_FILE_APPENDER = "fout";           // Name of the log4j appender that writes out.log
+    private static final String TARGET_DIR = "target.dir";            // Log context key that routes to out.log
+    private static final String PROJECT = "project";                  // Log context key for the project name
+
     private Main() {
     }
 
@@ -38,36 +50,120 @@ public class Main {
         if (config.requestHelp()) {
             config.displayUsage();
             done = true;
-        } else if (config.isValid()) {
-            done = run(config);
-        } else {
+        } else if (!config.isValid()) {
             done = false;
+        } else if (config.getDaemonPort() != 0) {
+            done = serve(config);
+        } else if (config.isWatching()) {
+            done = watch(config);
+        } else {
+            done = buildAll(config, new ConcurrentHashMap<>());
         }
 
         System.exit(done ? 0 : 1);
     }
 
 
-    private static boolean run(@Nonnull Config config) {
+    /**
+     * Build all the projects described by the {@code config}
+     * @param config        The parsed command line
+     * @param history       The compiler for the last successful build of each project, indexed by the absolute
+     *                      path of the project directory. This is updated by each successful build so that later
+     *                      builds of the same project can be incremental. This must be thread safe.
+     * @return {@literal true} only if every project was built successfully
+     */
+    static boolean buildAll(@Nonnull Config config, @Nonnull Map<File, AtomicReference<Compiler>> history) {
+        List<File> projects = config.getProjects();
+
+        return (projects.size() == 1 ? run(config, projects.get(0), history) : runBatch(config, history));
+    }
+
+
+    // Run the build daemon until the process is stopped
+    private static boolean serve(@Nonnull Config config) {
         boolean done;
 
+        try (BuildServer server = new BuildServer(config.getDaemonPort())) {
+            server.run();
+            done = true;
+        } catch (Exception e) {
+            reportError(e);
+            done = false;
+        }
+
+        return done;
+    }
+
+
+    // Build every project, several at a time, in this JVM. Each build has its own log file and limits.
+    private static boolean runBatch(@Nonnull Config config, @Nonnull Map<File, AtomicReference<Compiler>> history) {
+        List<File> projects = config.getProjects();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(config.getJobs(), projects.size()));
+        List<Future<Boolean>> results = new ArrayList<>();
+        List<File> failed = new ArrayList<>();
+
+        for (var project : projects) {
+            results.add(executor.submit(() -> {
+                ThreadContext.put(PROJECT, project.getName());
+
+                try {
+                    return run(config, project, history);
+                } finally {
+                    ThreadContext.remove(PROJECT);
+                }
+            }));
+        }
+
+        executor.shutdown();
+
+        for (int index = 0; index < projects.size(); index++) {
+            if (!isSuccessful(results.get(index))) {
+                failed.add(projects.get(index));
+            }
+        }
+
+        System.out.printf("Built %d of %d projects%n", projects.size() - failed.size(), projects.size());
+        failed.forEach(p -> System.out.printf("Failed to build %s%n", p.getAbsolutePath()));
+
+        return failed.isEmpty();
+    }
+
+
+    private static boolean isSuccessful(@Nonnull Future<Boolean> result) {
+        boolean successful;
+
         try {
-            File projectDirectory = config.getProject();
-            File targetDirectory = new File(projectDirectory, "target");
+            successful = result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            successful = false;
+        } catch (ExecutionException e) {
+            reportError(e);
+            successful = false;
+        }
 
-            System.setProperty("target.dir", targetDirectory.getAbsolutePath().replace('\\', '/'));
-            IoUtils.clearDirectory(targetDirectory);
+        return successful;
+    }
+
+
+    // Build the project and then rebuild it each time one of the source files changes. This only returns if the
+    // thread is interrupted or the project can no longer be watched. Failed builds do not stop the watch.
+    // Rebuilds are incremental relative to the last successful build.
+    private static boolean watch(@Nonnull Config config) {
+        File projectDirectory = config.getProjects().get(0);
+        boolean done;
 
-            GlobalData globalData = GlobalDataFactory.parse(projectDirectory);
-            InputPins inputPins = InputPinsFactory.parse(projectDirectory);
-            OutputPins outputPins = OutputPinsFactory.parse(projectDirectory);
-            MicroCode microCode = new Compiler.Builder(projectDirectory)
-                .withPins(inputPins, outputPins)
-                .compile()
-                .getMicroCode();
+        try (ProjectWatcher watcher = new ProjectWatcher(projectDirectory)) {
+            Set<ProjectFile> changed = EnumSet.allOf(ProjectFile.class);
+            AtomicReference<Compiler> previous = new AtomicReference<>();
 
-            generateReports(targetDirectory, microCode);
-            generateRoms(targetDirectory, globalData, microCode, inputPins, outputPins);
+            while (!changed.isEmpty()) {
+                build(config, projectDirectory, previous);
+
+                System.out.printf("Watching %s for changes...%n", projectDirectory.getAbsolutePath());
+                changed = watcher.await();
+                changed.forEach(f -> System.out.printf("Detected change to %s%n", f.getFileName()));
+            }
 
             done = true;
         } catch (Exception e) {
@@ -80,22 +176,79 @@ public class Main {
     }
 
 
-    private static void generateReports(@Nonnull File targetDirectory, @Nonnull MicroCode microCode) {
-        Reporter reporter = new Reporter(targetDirectory);
+    private static boolean run(@Nonnull Config config,
+                               @Nonnull File projectDirectory,
+                               @Nonnull Map<File, AtomicReference<Compiler>> history) {
+        AtomicReference<Compiler> previous =
+            history.computeIfAbsent(projectDirectory.getAbsoluteFile(), k -> new AtomicReference<>());
 
-        microCode.report(reporter);
-        reporter.close();
+        return build(config, projectDirectory, previous);
     }
 
 
-    private static void generateRoms(@Nonnull File targetDirectory,
-                                     @Nonnull GlobalData globalData,
-                                     @Nonnull MicroCode microCode,
-                                     @Nonnull InputPins inputPins,
-                                     @Nonnull OutputPins outputPins) {
-        Content generator = new ContentGenerator(targetDirectory, globalData, inputPins, outputPins);
+    // Returns true only if the build was successful. If the project was compiled then 'previous' is updated.
+    // All the state of the build is local to this call, so several projects can be built at the same time.
+    private static boolean build(@Nonnull Config config,
+                                 @Nonnull File projectDirectory,
+                                 @Nonnull AtomicReference<Compiler> previous) {
+        File targetDirectory = new File(projectDirectory, "target");
+        String logKey = targetDirectory.getAbsolutePath().replace('\\', '/');
+        boolean done;
+
+        ThreadContext.put(TARGET_DIR, logKey);
+
+        try {
+            String settings = config.describeOutput();
+            BuildCache cache = new BuildCache(projectDirectory, targetDirectory, config.useCache(), settings);
+
+            prepareTarget(cache, logKey);
+
+            if (!cache.isUpToDate(BuildCache.Stage.values())) {
+                Compiler compiler = new BuildGraph(config, projectDirectory, targetDirectory, cache)
+                    .run(previous.get());
+
+                cache.save();
+                previous.set(compiler);
+            }
 
-        microCode.generate(generator);
-        generator.close();
+            done = true;
+        } catch (Exception e) {
+            reportError(e);
+            done = false;
+        } finally {
+            closeLog(logKey);
+            ThreadContext.remove(TARGET_DIR);
+        }
+
+        return done;
+    }
+
+
+    // Errors from concurrent builds must not be interleaved
+    private static synchronized void reportError(@Nonnull Exception e) {
+        System.err.println("**** ERROR ****");
+        e.printStackTrace();
+    }
+
+
+    // The log file is written to the target directory, so it must be released before the directory is prepared.
+    // It is reopened by the next message logged for this build. This allows the project to be rebuilt in watch mode.
+    private static void prepareTarget(@Nonnull BuildCache cache, @Nonnull String logKey) {
+        closeLog(logKey);
+        cache.prepare();
+
+        if (cache.isUpToDate(BuildCache.Stage.values())) {
+            LogManager.getLogger(Main.class).info("All outputs are up to date");
+        }
+    }
+
+
+    // Release the log file for a single build. Each build has its own log file, selected by the log context
+    private static void closeLog(@Nonnull String logKey) {
+        Appender appender = LoggerContext.getContext(false).getConfiguration().getAppender(LOG_FILE_APPENDER);
+
+        if (appender instanceof RoutingAppender) {
+            ((RoutingAppender) appender).deleteAppender(logKey);
+        }
     }
 }
@@ -2,11 +2,23 @@ package com.github.tymefly.eeprom.builder.config;
 
 import java.io.File;
 import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import com.github.tymefly.eeprom.builder.io.source.ProjectFile;
-import com.github.tymefly.eeprom.builder.utils.Preconditions;
+import com.github.tymefly.eeprom.builder.io.target.eeprom.EntryOrder;
+import com.github.tymefly.eeprom.builder.io.target.eeprom.ImageFormat;
 import org.kohsuke.args4j.Argument;
 import org.kohsuke.args4j.CmdLineException;
 import org.kohsuke.args4j.CmdLineParser;
@@ -17,31 +29,64 @@ import static org.kohsuke.args4j.OptionHandlerFilter.ALL;
 
 
 /**
- * Command Line Argument parser.
+ * Command Line Argument parser. Each call to {@link #parse(Class, String...)} returns an independent configuration
  */
 public class Config {
     private static final int SCREEN_WIDTH_CHARACTERS = 80;
-    private static Config instance;
+    private static final Pattern WILDCARDS = Pattern.compile("[*?\\[{]");
+    private static final int MAX_PORT = 0xffff;
 
-    @Argument(required = true, metaVar = "LOCATION", usage = "directory containing the project files")
-    private File project;
+    @Argument(multiValued = true, metaVar = "LOCATION",
+              usage = "directories containing the project files. The last part of each path may contain wildcards")
+    private List<File> locations = new ArrayList<>();
+
+    @Option(name = "-j", aliases = "--jobs", metaVar = "COUNT", usage = "number of projects to build concurrently")
+    private int jobs = Runtime.getRuntime().availableProcessors();
 
     @Option(name = "-?", aliases = {"--help", "-h"}, help = true)
     private boolean help;
 
+    @Option(name = "-t", aliases = "--threads", metaVar = "COUNT", usage = "threads used to build each project")
+    private int threads = 1;
+
+    @Option(name = "-f", aliases = "--format", metaVar = "FORMAT",
+            usage = "format of the EEPROM images. This can be repeated to generate multiple formats")
+    private List<ImageFormat> formats = new ArrayList<>();
+
+    @Option(name = "-r", aliases = "--record-length", metaVar = "BYTES",
+            usage = "maximum number of data bytes in each S-Record or Intel HEX record")
+    private int recordLength = ImageFormat.DEFAULT_RECORD_LENGTH;
+
+    @Option(name = "-m", aliases = "--map-order", metaVar = "ORDER", usage = "order of the entries in the map file")
+    private EntryOrder mapOrder = EntryOrder.OPCODE;
+
+    @Option(name = "-c", aliases = "--cache", usage = "only regenerate the files that are out of date")
+    private boolean cache;
+
+    @Option(name = "-w", aliases = "--watch", usage = "rebuild the project each time a source file changes")
+    private boolean watch;
+
+    @Option(name = "-d", aliases = "--daemon", metaVar = "PORT",
+            usage = "run a build daemon that accepts requests on a local port")
+    private int daemonPort;
+
     private final String parent;
+    private final File workingDirectory;
     private final CmdLineParser parser;
+    private final List<File> projects;
     private boolean isValid;
 
 
-    private Config(@Nonnull Class<?> parent) {
+    private Config(@Nonnull Class<?> parent, @Nullable File workingDirectory) {
         ParserProperties parserProperties = ParserProperties.defaults()
                 .withUsageWidth(SCREEN_WIDTH_CHARACTERS)
                 .withAtSyntax(false)
                 .withShowDefaults(true);
 
         this.parent = parent.getName();
+        this.workingDirectory = workingDirectory;
         this.parser = new CmdLineParser(this, parserProperties);
+        this.projects = new ArrayList<>();
     }
 
 
@@ -49,16 +94,29 @@ public class Config {
      * Parse the command line arguments. This must be done before calling any other methods in this class
      * @param parent        The class that implements {@literal main(String[])}
      * @param args          The command line arguments
-     * @return              The singleton instance of this class
+     * @return              The parsed configuration
      */
     @Nonnull
     public static Config parse(@Nonnull Class<?> parent, String... args) {
-        Preconditions.checkState(instance == null, "Command line has already been set");
+        return parse(parent, null, args);
+    }
+
+
+    /**
+     * Parse the command line arguments for a process that may have a different working directory to this one
+     * @param parent            The class that implements {@literal main(String[])}
+     * @param workingDirectory  The directory that relative project locations are resolved against. If this is
+     *                          {@literal null} then the current working directory is used
+     * @param args              The command line arguments
+     * @return                  The parsed configuration
+     */
+    @Nonnull
+    public static Config parse(@Nonnull Class<?> parent, @Nullable File workingDirectory, String... args) {
+        Config config = new Config(parent, workingDirectory);
 
-        instance = new Config(parent);
-        instance.parse(args);
+        config.parse(args);
 
-        return instance;
+        return config;
     }
 
 
@@ -80,28 +138,136 @@ public class Config {
 
 
     private boolean validate() {
+        String message = expand();
+
+        if (message == null) {
+            message = (daemonPort != 0 ? validateDaemon() : validateBuild());
+        }
+
+        boolean valid = (message == null);
+
+        if (!valid) {
+            System.err.printf("Error: %s%n", message);
+        }
+
+        return valid;
+    }
+
+
+    @Nullable
+    private String validateBuild() {
         String message;
 
-        if (!project.isDirectory()) {
-            message = "Error: Invalid directory " + project.getAbsolutePath();
+        if (locations.isEmpty()) {
+            message = "Argument \"LOCATION\" is required";
+        } else if (projects.isEmpty()) {
+            message = "No project directories match " + locations;
+        } else if (threads < 1) {
+            message = "Thread count must be at least 1";
+        } else if (jobs < 1) {
+            message = "Job count must be at least 1";
+        } else if ((recordLength < 1) || (recordLength > ImageFormat.MAX_RECORD_LENGTH)) {
+            message = "Record length must be in the range 1 to " + ImageFormat.MAX_RECORD_LENGTH;
+        } else if (watch && (projects.size() != 1)) {
+            message = "Only one project can be watched";
+        } else {
+            message = null;
+
+            for (File project : projects) {
+                message = (message != null ? message : validate(project));
+            }
+        }
+
+        return message;
+    }
+
+
+    @Nullable
+    private String validateDaemon() {
+        String message;
+
+        if ((daemonPort < 1) || (daemonPort > MAX_PORT)) {
+            message = "Daemon port must be in the range 1 to " + MAX_PORT;
+        } else if (!locations.isEmpty()) {
+            message = "Projects are passed to the daemon by the client";
+        } else if (watch) {
+            message = "The daemon can not watch a project";
         } else {
             message = null;
+        }
+
+        return message;
+    }
+
+
+    // Add the project directories that match the locations. Returns an error message if a location is invalid
+    @Nullable
+    private String expand() {
+        String message = null;
+
+        for (var location : locations) {
+            message = (message != null ? message : expand(location));
+        }
+
+        return message;
+    }
+
+
+    // Add the project directories that match a location. Only the last part of the location can contain wildcards
+    @Nullable
+    private String expand(@Nonnull File location) {
+        if ((workingDirectory != null) && !location.isAbsolute()) {
+            location = new File(workingDirectory, location.getPath());
+        }
+
+        String name = location.getName();
+        String message = null;
+
+        if (!WILDCARDS.matcher(name).find()) {
+            projects.add(location);
+        } else {
+            try {
+                PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + name);
+
+                projects.addAll(match(location, matcher));
+            } catch (PatternSyntaxException e) {
+                message = "Invalid location pattern " + location.getPath();
+            }
+        }
+
+        return message;
+    }
+
+
+    @Nonnull
+    private List<File> match(@Nonnull File location, @Nonnull PathMatcher matcher) {
+        File parentDirectory = (location.getParentFile() == null ? new File(".") : location.getParentFile());
+        File[] matches = parentDirectory.listFiles(f -> f.isDirectory() && matcher.matches(Paths.get(f.getName())));
+        List<File> found = new ArrayList<>((matches == null) ? List.of() : List.of(matches));
 
+        Collections.sort(found);
+
+        return found;
+    }
+
+
+    @Nullable
+    private String validate(@Nonnull File project) {
+        String message = null;
+
+        if (!project.isDirectory()) {
+            message = "Invalid directory " + project.getAbsolutePath();
+        } else {
             for (ProjectFile test : ProjectFile.values()) {
                 if (!new File(project, test.getFileName()).exists()) {
-                    message = "Project is missing required file '" + test.getFileName() + "'";
+                    message = "Project " + project.getPath() + " is missing required file '" +
+                              test.getFileName() + "'";
                     break;
                 }
             }
         }
 
-        boolean valid = (message == null);
-
-        if (!valid) {
-            System.err.printf("Error: %s%n", message);
-        }
-
-        return valid;
+        return message;
     }
 
 
@@ -141,11 +307,96 @@ public class Config {
 
 
     /**
-     * Returns the location of the project directory
-     * @return the location of the project directory
+     * Returns the locations of the project directories, with any wildcards expanded
+     * @return the locations of the project directories
+     */
+    @Nonnull
+    public List<File> getProjects() {
+        return Collections.unmodifiableList(projects);
+    }
+
+
+    /**
+     * Returns the maximum number of projects that can be built concurrently
+     * @return the maximum number of projects that can be built concurrently
+     */
+    public int getJobs() {
+        return jobs;
+    }
+
+
+    /**
+     * Returns the number of threads that can be used to build each project
+     * @return the number of threads that can be used to build each project
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+
+    /**
+     * Returns the formats that each EEPROM image should be written in. If none were specified then the images are
+     * written as S-Records
+     * @return the formats that each EEPROM image should be written in
+     */
+    @Nonnull
+    public Set<ImageFormat> getFormats() {
+        return (formats.isEmpty() ? EnumSet.of(ImageFormat.SREC) : EnumSet.copyOf(formats));
+    }
+
+
+    /**
+     * Returns the maximum number of data bytes in each record of the record based image formats
+     * @return the maximum number of data bytes in each record of the record based image formats
+     */
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+
+    /**
+     * Returns the order of the entries in the map file
+     * @return the order of the entries in the map file
+     */
+    @Nonnull
+    public EntryOrder getMapOrder() {
+        return mapOrder;
+    }
+
+
+    /**
+     * Returns a description of all the settings that affect the content of the generated files
+     * @return a description of all the settings that affect the content of the generated files
      */
     @Nonnull
-    public File getProject() {
-        return project;
+    public String describeOutput() {
+        return "formats=" + getFormats() + ", recordLength=" + recordLength + ", mapOrder=" + mapOrder;
+    }
+
+
+    /**
+     * Returns {@literal true} only if the project should be rebuilt each time a source file changes
+     * @return {@literal true} only if the project should be rebuilt each time a source file changes
+     */
+    public boolean isWatching() {
+        return watch;
+    }
+
+
+    /**
+     * Returns the local port that the build daemon should listen on
+     * @return the local port that the build daemon should listen on, or {@literal 0} if the daemon is not required
+     */
+    public int getDaemonPort() {
+        return daemonPort;
+    }
+
+
+    /**
+     * Returns {@literal true} only if the build cache should be used to skip files that are already up to date
+     * @return {@literal true} only if the build cache should be used to skip files that are already up to date
+     */
+    public boolean useCache() {
+        return cache;
     }
 }
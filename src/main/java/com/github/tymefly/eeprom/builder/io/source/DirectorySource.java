@@ -0,0 +1,50 @@
+package com.github.tymefly.eeprom.builder.io.source;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Project source files that are read from a directory. The directory can be on any {@link java.nio.file.FileSystem},
+ * including an in-memory or zip file system.
+ */
+public class DirectorySource implements ProjectSource {
+    private final Path projectDirectory;
+
+
+    /**
+     * Constructor
+     * @param projectDirectory  The directory that contains the project source code
+     */
+    public DirectorySource(@Nonnull Path projectDirectory) {
+        this.projectDirectory = projectDirectory;
+    }
+
+
+    /**
+     * Constructor
+     * @param projectDirectory  The directory on disc that contains the project source code
+     */
+    public DirectorySource(@Nonnull File projectDirectory) {
+        this(projectDirectory.toPath());
+    }
+
+
+    @Nonnull
+    @Override
+    public List<String> readLines(@Nonnull ProjectFile file) throws IOException {
+        return Files.readAllLines(projectDirectory.resolve(file.getFileName()), StandardCharsets.UTF_8);
+    }
+
+
+    @Nonnull
+    @Override
+    public String getDescription() {
+        return projectDirectory.toString();
+    }
+}
@@ -2,34 +2,40 @@ package com.github.tymefly.eeprom.builder.io.source;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 
 import com.github.tymefly.eeprom.builder.exception.SourceFileException;
+import com.github.tymefly.eeprom.builder.io.source.group.GroupValidator;
 
 /**
- * A class that is used to load source files from disc and return them in a cleaned up format.
+ * A class that is used to load source files and return them in a cleaned up format.
  */
 public class FileLoader {
-    private final File projectDirectory;
+    private final ProjectSource source;
     private final ProjectFile file;
-    private final Path location;
 
 
     /**
-     * Create a new FileLoader
+     * Create a new FileLoader that reads from disc
      * @param projectDirectory  directory that contains the source file
      * @param file              A description of the file that needs to be loaded
      */
     public FileLoader(@Nonnull File projectDirectory, @Nonnull ProjectFile file) {
-        this.projectDirectory = projectDirectory;
+        this(new DirectorySource(projectDirectory), file);
+    }
+
+
+    /**
+     * Create a new FileLoader
+     * @param source            The source of the project files
+     * @param file              A description of the file that needs to be loaded
+     */
+    public FileLoader(@Nonnull ProjectSource source, @Nonnull ProjectFile file) {
+        this.source = source;
         this.file = file;
-        this.location = new File(projectDirectory, file.getFileName()).toPath();
     }
 
 
@@ -49,12 +55,12 @@ public class FileLoader {
     public SourceFile read() throws SourceFileException {
         SourceLine.Builder lineBuilder = new SourceLine.Builder(file);
         SourceLine header = lineBuilder.header();
-        SourceFile sourceFile = new SourceFile(projectDirectory, file, header);
+        SourceFile sourceFile = new SourceFile(source, file, header);
 
         try {
             List<SourceLine> lines = readLines(lineBuilder);
 
-            group(sourceFile, lines);
+            group(sourceFile, lines, file.getGroupValidator());
         } catch (IOException e) {
             throw new SourceFileException(sourceFile, "Failed to load file", e);
         }
@@ -63,35 +69,34 @@ public class FileLoader {
     }
 
 
+    // Blank lines are still passed to the builder to keep the line index correct
     @Nonnull
     private List<SourceLine> readLines(@Nonnull SourceLine.Builder lineBuilder) throws IOException {
-        return Files.readAllLines(location, StandardCharsets.UTF_8)
-             .stream()
-             .map(this::removeComments)
-             .map(s -> s.replaceAll("\\s+$", ""))           // Remove trailing (but not leading) spaces
-             .map(s -> s.replaceAll("\\s+", " "))           // Replace multiple white spaces with a single space
-             .map(lineBuilder::build)
-             .filter(SourceLine::hasText)                   // Filter after build to keep the line index correct.
-             .collect(Collectors.toList());
-    }
+        List<String> text = source.readLines(file);
+        List<SourceLine> lines = new ArrayList<>(text.size());
 
+        for (var line : text) {
+            SourceLine sourceLine = lineBuilder.build(line);
 
-    @Nonnull
-    private String removeComments(@Nonnull String line) {
-        int index = line.indexOf("//");
+            if (sourceLine != null) {
+                lines.add(sourceLine);
+            }
+        }
 
-        return (index != -1 ? line.substring(0, index) : line);
+        return lines;
     }
 
 
-    private void group(@Nonnull SourceFile sourceFile, @Nonnull List<SourceLine> lines) {
+    private void group(@Nonnull SourceFile sourceFile,
+                       @Nonnull List<SourceLine> lines,
+                       @Nonnull GroupValidator validator) {
         SourceGroup group = null;
 
         for (var line : lines) {
             String text = line.getText();
 
             if (text.startsWith("[")) {
-                group = parseGroup(line);
+                group = parseGroup(line, validator);
                 sourceFile.add(group);
             } else if (group != null) {
                 group.add(line);
@@ -103,14 +108,14 @@ public class FileLoader {
 
 
     @Nonnull
-    private SourceGroup parseGroup(@Nonnull SourceLine line) {
+    private SourceGroup parseGroup(@Nonnull SourceLine line, @Nonnull GroupValidator validator) {
         boolean valid;
         String text = line.getText();
         int length = text.length();
 
         if (text.endsWith("]")) {
             text = text.substring(1, length - 1);
-            valid = file.getGroupValidator().isValid(text);
+            valid = validator.isValid(text);
         } else {
             valid = false;
         }
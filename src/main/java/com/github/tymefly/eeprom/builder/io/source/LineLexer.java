@@ -0,0 +1,138 @@
+package com.github.tymefly.eeprom.builder.io.source;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A lexer that cleans up a single line of a source file and splits it into columns in one pass over the text.
+ * The cleaned up text has:
+ * <ul>
+ *  <li>Comments removed</li>
+ *  <li>Trailing spaces removed (but not leading spaces)</li>
+ *  <li>Multiple whitespaces replaced with a single space</li>
+ * </ul>
+ * The columns of the cleaned up text are separated by one or more horizontal whitespace characters. As with
+ * {@link String#split(String)}, a line that starts with whitespace has an empty first column.
+ * <br>
+ * Instances of this class are reused for each line in a file, so they are not thread safe.
+ */
+class LineLexer {
+    private static final String[] NO_COLUMNS = new String[0];
+
+    private final StringBuilder text = new StringBuilder();
+    private final List<String> columns = new ArrayList<>();
+    private int columnStart;
+    private boolean separating;
+    private boolean separated;
+
+
+    /**
+     * Scan a line of a source file
+     * @param line          The literal text of the line, without a line terminator
+     * @return              A fluent interface
+     */
+    @Nonnull
+    LineLexer scan(@Nonnull String line) {
+        int comment = line.indexOf("//");
+        int length = (comment == -1 ? line.length() : comment);
+        boolean space = false;
+
+        text.setLength(0);
+        columns.clear();
+        columnStart = 0;
+        separating = false;
+        separated = false;
+
+        for (int index = 0; index < length; index++) {
+            char next = line.charAt(index);
+
+            if (isWhitespace(next)) {
+                space = true;                                       // Dropped if it's trailing
+            } else {
+                if (space && !isFinalTerminator(next, index, length)) {
+                    append(' ');
+                }
+
+                space = false;
+                append(next);
+            }
+        }
+
+        if (!separating) {
+            columns.add(text.substring(columnStart));
+        }
+
+        return this;
+    }
+
+
+    private void append(char next) {
+        if (!isHorizontalWhitespace(next)) {
+            if (separating) {
+                columnStart = text.length();
+                separating = false;
+            }
+        } else if (!separating) {
+            columns.add(text.substring(columnStart));
+            separating = true;
+            separated = true;
+        }
+
+        text.append(next);
+    }
+
+
+    /**
+     * Returns the cleaned up text of the last line that was scanned
+     * @return the cleaned up text of the last line that was scanned
+     */
+    @Nonnull
+    String getText() {
+        return text.toString();
+    }
+
+
+    /**
+     * Returns the columns in the cleaned up text of the last line that was scanned
+     * @return the columns in the cleaned up text of the last line that was scanned
+     */
+    @Nonnull
+    String[] getColumns() {
+        int count = columns.size();
+
+        while (separated && (count > 0) && columns.get(count - 1).isEmpty()) {     // Trailing columns are dropped
+            count--;
+        }
+
+        return (count == 0 ? NO_COLUMNS : columns.subList(0, count).toArray(NO_COLUMNS));
+    }
+
+
+    // The characters matched by \s in a regular expression
+    private static boolean isWhitespace(char value) {
+        return (value == ' ') || ((value >= '\t') && (value <= '\r'));
+    }
+
+
+    // In a regular expression '$' also matches before one of these characters at the end of the text, so the
+    // whitespace before it is trailing
+    private static boolean isFinalTerminator(char value, int index, int length) {
+        return (index == length - 1) && ((value == '\u0085') || (value == '\u2028') || (value == '\u2029'));
+    }
+
+
+    // The characters matched by \h in a regular expression
+    private static boolean isHorizontalWhitespace(char value) {
+        return (value == ' ') ||
+               (value == '\t') ||
+               (value == '\u00A0') ||
+               (value == '\u1680') ||
+               (value == '\u180E') ||
+               ((value >= '\u2000') && (value <= '\u200A')) ||
+               (value == '\u202F') ||
+               (value == '\u205F') ||
+               (value == '\u3000');
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.tymefly.eeprom.builder.io.source;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Project source files that are all read from another {@link ProjectSource} as soon as this object is created.
+ * Each file is read by its own task, so if the {@link Executor} has several threads the files are loaded at the same
+ * time. Reading a file waits for that file to be loaded; an error loading the file is reported when it is read.
+ */
+public class PreloadedSource implements ProjectSource {
+    private final ProjectSource source;
+    private final Map<ProjectFile, CompletableFuture<List<String>>> files;
+
+
+    /**
+     * Constructor
+     * @param source        The source the project files are loaded from
+     * @param executor      Used to run the tasks that load each of the files
+     */
+    public PreloadedSource(@Nonnull ProjectSource source, @Nonnull Executor executor) {
+        this.source = source;
+        this.files = new EnumMap<>(ProjectFile.class);
+
+        for (var file : ProjectFile.values()) {
+            files.put(file, CompletableFuture.supplyAsync(() -> load(file), executor));
+        }
+    }
+
+
+    @Nonnull
+    private List<String> load(@Nonnull ProjectFile file) {
+        try {
+            return source.readLines(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    @Nonnull
+    @Override
+    public List<String> readLines(@Nonnull ProjectFile file) throws IOException {
+        try {
+            return files.get(file).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw e;
+            }
+        }
+    }
+
+
+    @Nonnull
+    @Override
+    public String getDescription() {
+        return source.getDescription();
+    }
+}
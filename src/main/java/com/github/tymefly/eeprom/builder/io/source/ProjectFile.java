@@ -1,5 +1,7 @@
 package com.github.tymefly.eeprom.builder.io.source;
 
+import java.util.function.Supplier;
+
 import javax.annotation.Nonnull;
 
 import com.github.tymefly.eeprom.builder.io.source.group.EnumGroupValidator;
@@ -14,16 +16,16 @@ import com.github.tymefly.eeprom.builder.project.output.Rom;
  * Enumeration of all the source files that exist in a valid project
  */
 public enum ProjectFile {
-    PROJECT("project.txt", new EnumGroupValidator<>(Project.class)),
-    INPUT_DEFINITION("input_pins.txt", new EnumGroupValidator<>(InputTypes.class)),
-    CODE("code.txt", new InstructionValidator()),
-    OUTPUT_DEFINITION("output_pins.txt", new EnumGroupValidator<>(Rom.class));
+    PROJECT("project.txt", () -> new EnumGroupValidator<>(Project.class)),
+    INPUT_DEFINITION("input_pins.txt", () -> new EnumGroupValidator<>(InputTypes.class)),
+    CODE("code.txt", InstructionValidator::new),
+    OUTPUT_DEFINITION("output_pins.txt", () -> new EnumGroupValidator<>(Rom.class));
 
     private final String fileName;
-    private final GroupValidator groupValidator;
+    private final Supplier<GroupValidator> groupValidator;
 
 
-    ProjectFile(@Nonnull String fileName, @Nonnull GroupValidator groupValidator) {
+    ProjectFile(@Nonnull String fileName, @Nonnull Supplier<GroupValidator> groupValidator) {
         this.fileName = fileName;
         this.groupValidator = groupValidator;
     }
@@ -40,11 +42,12 @@ public enum ProjectFile {
 
 
     /**
-     * Returns a class used to validate group names in this source file
-     * @return a class used to validate group names in this source file
+     * Returns a new class used to validate group names in this source file. Validators may be stateful, so
+     * a new instance is required each time the file is read
+     * @return a new class used to validate group names in this source file
      */
     @Nonnull
     public GroupValidator getGroupValidator() {
-        return groupValidator;
+        return groupValidator.get();
     }
 }
@@ -0,0 +1,30 @@
+package com.github.tymefly.eeprom.builder.io.source;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Contract for a class that provides the content of the project source files. This allows a project to be
+ * compiled from a directory on disc, from another file system or directly from memory.
+ * @see DirectorySource
+ * @see TextSource
+ */
+public interface ProjectSource {
+    /**
+     * Returns every line in one of the project source files
+     * @param file          The source file to read
+     * @return every line in the source file, without the line terminators
+     * @throws IOException  if the source file could not be read
+     */
+    @Nonnull
+    List<String> readLines(@Nonnull ProjectFile file) throws IOException;
+
+    /**
+     * Returns a human readable description of where the source files are read from
+     * @return a human readable description of where the source files are read from
+     */
+    @Nonnull
+    String getDescription();
+}
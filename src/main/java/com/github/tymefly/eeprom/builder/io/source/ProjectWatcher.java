@@ -0,0 +1,111 @@
+package com.github.tymefly.eeprom.builder.io.source;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import com.github.tymefly.eeprom.builder.exception.IoException;
+
+
+/**
+ * Watch the source files in a project directory for changes
+ */
+public class ProjectWatcher implements AutoCloseable {
+    private static final long DEBOUNCE_MILLIS = 250;        // Wait for the files to be quiet for this long
+
+    private final File projectDirectory;
+    private final WatchService watchService;
+
+
+    /**
+     * Constructor. Changes are tracked from the moment this object is created
+     * @param projectDirectory  The directory that contains the project source code
+     */
+    public ProjectWatcher(@Nonnull File projectDirectory) {
+        this.projectDirectory = projectDirectory;
+
+        try {
+            Path path = projectDirectory.toPath();
+
+            watchService = path.getFileSystem().newWatchService();
+            path.register(watchService,
+                          StandardWatchEventKinds.ENTRY_CREATE,
+                          StandardWatchEventKinds.ENTRY_MODIFY,
+                          StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new IoException("Failed to watch directory " + projectDirectory.getAbsolutePath(), e);
+        }
+    }
+
+
+    /**
+     * Block until at least one of the project source files has changed. A burst of changes, such as those made
+     * when an editor saves a file, is reported as a single change.
+     * @return  The source files that have changed, or an empty set if the calling thread was interrupted
+     */
+    @Nonnull
+    public Set<ProjectFile> await() {
+        Set<ProjectFile> changed = EnumSet.noneOf(ProjectFile.class);
+
+        try {
+            while (changed.isEmpty()) {
+                consume(watchService.take(), changed);
+            }
+
+            WatchKey key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+
+            while (key != null) {
+                consume(key, changed);
+                key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            changed = Collections.emptySet();
+        }
+
+        return changed;
+    }
+
+
+    private void consume(@Nonnull WatchKey key, @Nonnull Set<ProjectFile> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+
+            if (context instanceof Path) {
+                String name = ((Path) context).getFileName().toString();
+
+                for (ProjectFile file : ProjectFile.values()) {
+                    if (file.getFileName().equals(name)) {
+                        changed.add(file);
+                    }
+                }
+            } else {
+                changed.addAll(EnumSet.allOf(ProjectFile.class));       // Events were lost - assume the worst
+            }
+        }
+
+        if (!key.reset()) {
+            throw new IoException("Directory " + projectDirectory.getAbsolutePath() + " can no longer be watched");
+        }
+    }
+
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            throw new IoException("Failed to stop watching " + projectDirectory.getAbsolutePath(), e);
+        }
+    }
+}
@@ -1,26 +1,26 @@
 package com.github.tymefly.eeprom.builder.io.source;
 
-import java.io.File;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 import javax.annotation.Nonnull;
 
+import com.github.tymefly.eeprom.builder.utils.Fingerprint;
 import com.github.tymefly.eeprom.builder.utils.Preconditions;
 
 /**
  * A class that describes the content of one of the project source files.
  */
 public class SourceFile {
-    private final File projectDirectory;
+    private final ProjectSource source;
     private final ProjectFile file;
     private final SourceLine header;
     private final Map<String, SourceGroup> groups;
 
 
-    SourceFile(@Nonnull File projectDirectory, @Nonnull ProjectFile file, @Nonnull SourceLine header) {
-        this.projectDirectory = projectDirectory;
+    SourceFile(@Nonnull ProjectSource source, @Nonnull ProjectFile file, @Nonnull SourceLine header) {
+        this.source = source;
         this.file = file;
         this.header = header;
         this.groups = new LinkedHashMap<>();
@@ -88,10 +88,25 @@ public class SourceFile {
     }
 
 
+    /**
+     * Returns a fingerprint of all the groups in this SourceFile
+     * @return a fingerprint of all the groups in this SourceFile
+     * @see SourceGroup#getFingerprint()
+     */
+    @Nonnull
+    public String getFingerprint() {
+        Fingerprint builder = new Fingerprint();
+
+        groups.values().forEach(g -> builder.add(g.getFingerprint()));
+
+        return builder.build();
+    }
+
+
     @Override
     public String toString() {
         return "SourceFile{" +
-                "projectDirectory=" + projectDirectory +
+                "source=" + source.getDescription() +
                 ", file=" + file +
                 ", groups Count=" + groups.size() +
                 '}';
@@ -6,6 +6,7 @@ import java.util.List;
 
 import javax.annotation.Nonnull;
 
+import com.github.tymefly.eeprom.builder.utils.Fingerprint;
 import com.github.tymefly.eeprom.builder.utils.Preconditions;
 
 /**
@@ -16,6 +17,7 @@ public class SourceGroup {
     private final SourceLine header;
     private final List<SourceLine> lines;
     private SourceFile parent;
+    private String fingerprint;
 
 
     SourceGroup(@Nonnull String groupName, @Nonnull SourceLine header) {
@@ -30,6 +32,7 @@ public class SourceGroup {
 
         lines.add(line);
         line.setGroup(this);
+        fingerprint = null;
     }
 
 
@@ -69,6 +72,24 @@ public class SourceGroup {
     }
 
 
+    /**
+     * Returns a fingerprint of the name and the cleaned up text in this group. Changes to comments, blank lines and
+     * white space do not effect the fingerprint
+     * @return a fingerprint of the name and the cleaned up text in this group
+     */
+    @Nonnull
+    public String getFingerprint() {
+        if (fingerprint == null) {
+            Fingerprint builder = new Fingerprint().add(groupName);
+
+            lines.forEach(l -> builder.add(l.getText()));
+            fingerprint = builder.build();
+        }
+
+        return fingerprint;
+    }
+
+
     /**
      * Returns the parent {@link SourceFile} that contains this group
      * @return the parent {@link SourceFile} that contains this group
@@ -1,6 +1,7 @@
 package com.github.tymefly.eeprom.builder.io.source;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import com.github.tymefly.eeprom.builder.utils.Preconditions;
 
@@ -12,20 +13,23 @@ public class SourceLine {
      * Builder for SourceLine instances.
      * <br>
      * Line numbers for SourceLines are allocated sequentially, so the calling class needs to take care not to
-     * skip any input, even when it doesn't care about the line.
+     * skip any input, even when it doesn't care about the line. Lines are cleaned up and split into columns by a
+     * {@link LineLexer}.
      * <br>
      * There is also a special case 'header' SourceLine which can be used to represent line {@literal 0} of the file.
      * The calling code can use this if a required line is missing.
      */
     static class Builder {
         private final ProjectFile file;
+        private final LineLexer lexer;
         private SourceLine header;
         private int lineCount = 0;
 
 
         Builder(@Nonnull ProjectFile file) {
             this.file = file;
-            this.header = new SourceLine("", file, 0);
+            this.lexer = new LineLexer().scan("");
+            this.header = new SourceLine(lexer.getText(), lexer.getColumns(), file, 0);
         }
 
 
@@ -35,21 +39,33 @@ public class SourceLine {
         }
 
 
-        @Nonnull
+        /**
+         * Returns the next line of the file, or {@literal null} if the line does not have any text once it has
+         * been cleaned up. Blank lines are still counted.
+         * @param line      The literal text of the next line in the file
+         * @return the next line of the file, or {@literal null} if the line is blank
+         */
+        @Nullable
         SourceLine build(@Nonnull String line) {
-            return new SourceLine(line, file, ++lineCount);
+            String text = lexer.scan(line).getText();
+
+            lineCount++;
+
+            return (text.isEmpty() ? null : new SourceLine(text, lexer.getColumns(), file, lineCount));
         }
     }
 
 
     private final String text;
+    private final String[] columns;
     private ProjectFile file;
     private final int lineNumber;
     private SourceGroup group;
 
 
-    private SourceLine(@Nonnull String text, @Nonnull ProjectFile file, int lineNumber) {
+    private SourceLine(@Nonnull String text, @Nonnull String[] columns, @Nonnull ProjectFile file, int lineNumber) {
         this.text = text;
+        this.columns = columns;
         this.file = file;
         this.lineNumber = lineNumber;
     }
@@ -78,6 +94,18 @@ public class SourceLine {
     }
 
 
+    /**
+     * Returns the columns in the cleaned up text, which are separated by one or more whitespace characters. If the
+     * text starts with whitespace then the first column is empty.
+     * @return the columns in the cleaned up text
+     * @see #getText()
+     */
+    @Nonnull
+    public String[] getColumns() {
+        return columns.clone();
+    }
+
+
     /**
      * Returns the line number within the source file
      * @return the line number within the source file
@@ -0,0 +1,46 @@
+package com.github.tymefly.eeprom.builder.io.source;
+
+import java.nio.file.NoSuchFileException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Project source files that are held in memory as strings. Nothing is read from disc.
+ */
+public class TextSource implements ProjectSource {
+    private final Map<ProjectFile, String> content;
+
+
+    /**
+     * Constructor
+     * @param content       The text of each of the project source files
+     */
+    public TextSource(@Nonnull Map<ProjectFile, String> content) {
+        this.content = (content.isEmpty() ? new EnumMap<>(ProjectFile.class) : new EnumMap<>(content));
+    }
+
+
+    @Nonnull
+    @Override
+    public List<String> readLines(@Nonnull ProjectFile file) throws NoSuchFileException {
+        String text = content.get(file);
+
+        if (text == null) {
+            throw new NoSuchFileException(file.getFileName());
+        }
+
+        return text.lines()
+            .collect(Collectors.toList());
+    }
+
+
+    @Nonnull
+    @Override
+    public String getDescription() {
+        return "memory";
+    }
+}
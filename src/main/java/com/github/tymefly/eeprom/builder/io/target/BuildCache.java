@@ -0,0 +1,324 @@
+package com.github.tymefly.eeprom.builder.io.target;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+import com.github.tymefly.eeprom.builder.exception.IoException;
+import com.github.tymefly.eeprom.builder.io.source.ProjectFile;
+import com.github.tymefly.eeprom.builder.utils.Fingerprint;
+import com.github.tymefly.eeprom.builder.utils.IoUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A persistent cache of the files generated in the target directory. A manifest in the target directory records
+ * a key for each build {@link Stage} along with a fingerprint of every file the stage generated. A stage is only
+ * rerun if its key has changed or any of its files are missing or have been modified.
+ * <br>
+ * The key is a fingerprint of the compiler version, the project files the stage depends on and, for the stages that
+ * use them, the settings that affect the generated files. Nothing is fingerprinted if the cache is disabled.
+ */
+public class BuildCache {
+    /**
+     * The stages of the build that can be skipped, along with the source files they depend on
+     */
+    public enum Stage {
+        REPORTS(false, ProjectFile.CODE, ProjectFile.INPUT_DEFINITION, ProjectFile.OUTPUT_DEFINITION),
+        CONTENT(true, ProjectFile.values());
+
+        private final boolean usesSettings;
+        private final Collection<ProjectFile> sources;
+
+        Stage(boolean usesSettings, @Nonnull ProjectFile... sources) {
+            this.usesSettings = usesSettings;
+            this.sources = Arrays.asList(sources);
+        }
+    }
+
+
+    private static final Logger LOGGER = LogManager.getFormatterLogger();
+    private static final String MANIFEST = "build.manifest";
+    private static final String LOG_FILE = "out.log";
+    private static final String COMPILER_PROPERTIES = "/compiler.properties";
+    private static final String KEY = ".key";
+    private static final String OUTPUT = ".output.";
+
+
+    private final File projectDirectory;
+    private final File targetDirectory;
+    private final boolean enabled;
+    private final Properties previous;
+    private final Properties current;
+    private final Map<Stage, String> keys;
+    private final Set<Stage> upToDate;
+
+
+    /**
+     * Constructor. This must be called before anything is written to the target directory
+     * @param projectDirectory  The directory that contains the project source code
+     * @param targetDirectory   The directory that contains the generated files
+     * @param enabled           If {@literal false} then every stage is always run and nothing is fingerprinted
+     * @param settings          A description of the command line settings that affect the generated files
+     */
+    public BuildCache(@Nonnull File projectDirectory,
+                      @Nonnull File targetDirectory,
+                      boolean enabled,
+                      @Nonnull String settings) {
+        this.projectDirectory = projectDirectory;
+        this.targetDirectory = targetDirectory;
+        this.enabled = enabled;
+        this.previous = (enabled ? loadManifest() : new Properties());
+        this.current = new Properties();
+        this.keys = new EnumMap<>(Stage.class);
+        this.upToDate = EnumSet.noneOf(Stage.class);
+
+        if (enabled) {
+            String compilerVersion = readCompilerVersion();
+            Map<ProjectFile, String> sources = new EnumMap<>(ProjectFile.class);
+
+            for (var stage : Stage.values()) {
+                String key = key(compilerVersion, settings, sources, stage);
+
+                keys.put(stage, key);
+
+                if (isUpToDate(stage, key)) {
+                    upToDate.add(stage);
+                }
+            }
+        }
+    }
+
+
+    @Nonnull
+    private Properties loadManifest() {
+        Properties manifest = new Properties();
+        File file = new File(targetDirectory, MANIFEST);
+
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                manifest.load(in);
+            } catch (IOException | IllegalArgumentException e) {
+                LOGGER.warn("Ignoring invalid build manifest %s", file.getAbsolutePath());
+                manifest.clear();
+            }
+        }
+
+        return manifest;
+    }
+
+
+    @Nonnull
+    private String readCompilerVersion() {
+        Properties properties = new Properties();
+
+        try (InputStream in = BuildCache.class.getResourceAsStream(COMPILER_PROPERTIES)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new IoException("Failed to read " + COMPILER_PROPERTIES, e);
+        }
+
+        return properties.getProperty("version", "?") + " " + properties.getProperty("built", "?");
+    }
+
+
+    // Each project file is only fingerprinted once, however many stages depend on it
+    @Nonnull
+    private String key(@Nonnull String compilerVersion,
+                       @Nonnull String settings,
+                       @Nonnull Map<ProjectFile, String> sources,
+                       @Nonnull Stage stage) {
+        Fingerprint key = new Fingerprint()
+            .add(compilerVersion)
+            .add(stage.usesSettings ? settings : "")
+            .add(stage.name());
+
+        for (var source : EnumSet.copyOf(stage.sources)) {
+            String fingerprint = sources.computeIfAbsent(source,
+                                                         f -> fingerprint(new File(projectDirectory, f.getFileName())));
+
+            key.add(source.getFileName())
+               .add(fingerprint);
+        }
+
+        return key.build();
+    }
+
+
+    private boolean isUpToDate(@Nonnull Stage stage, @Nonnull String key) {
+        boolean valid = key.equals(previous.getProperty(stage.name() + KEY));
+
+        for (var output : outputs(stage)) {
+            File file = new File(targetDirectory, output);
+            String expected = previous.getProperty(stage.name() + OUTPUT + output);
+
+            valid = valid && file.isFile() && fingerprint(file).equals(expected);
+        }
+
+        return valid;
+    }
+
+
+    // Returns the names of the files generated by the stage in the previous build
+    @Nonnull
+    private Set<String> outputs(@Nonnull Stage stage) {
+        String prefix = stage.name() + OUTPUT;
+        Set<String> outputs = new HashSet<>();
+
+        for (var name : previous.stringPropertyNames()) {
+            if (name.startsWith(prefix)) {
+                outputs.add(name.substring(prefix.length()));
+            }
+        }
+
+        return outputs;
+    }
+
+
+    /**
+     * Returns {@literal true} only if all the {@code stages} are up to date and do not need to be rerun
+     * @param stages        The stages to test
+     * @return {@literal true} only if all the {@code stages} are up to date
+     */
+    public boolean isUpToDate(@Nonnull Stage... stages) {
+        return upToDate.containsAll(Arrays.asList(stages));
+    }
+
+
+    /**
+     * Prepare the target directory for a build. If the cache is disabled the directory is cleared, otherwise only
+     * the files generated by stages that are up to date are kept. If any stage needs to be run then the manifest
+     * is removed so that a failed build is not mistaken for a good one.
+     * <br>
+     * Nothing is logged by this method as the log file may be closed while the target directory is prepared.
+     */
+    public void prepare() {
+        if (!enabled) {
+            IoUtils.clearDirectory(targetDirectory);
+        } else if (!isUpToDate(Stage.values())) {
+            Set<String> keep = new HashSet<>();
+
+            upToDate.forEach(s -> keep.addAll(outputs(s)));
+
+            for (var name : listTarget()) {
+                if (!keep.contains(name)) {
+                    delete(new File(targetDirectory, name));
+                }
+            }
+
+            delete(new File(targetDirectory, MANIFEST));
+
+            if (!targetDirectory.isDirectory() && !targetDirectory.mkdirs()) {
+                throw new IoException("Failed to create target directory " + targetDirectory.getAbsolutePath());
+            }
+        }
+    }
+
+
+    /**
+     * Reuse the files generated by a {@code stage} in the previous build if they are up to date. If this method
+     * returns {@literal false} then the stage must be run and its files passed to {@link #record(Stage, Collection)}
+     * @param stage         The stage of the build
+     * @return {@literal true} only if the files generated by the stage are up to date and it does not need to be run
+     * @see #prepare()
+     */
+    public boolean reuse(@Nonnull Stage stage) {
+        boolean reused = upToDate.contains(stage);
+
+        if (reused) {
+            String prefix = stage.name() + ".";
+
+            LOGGER.info("%s is up to date", stage);
+
+            for (var name : previous.stringPropertyNames()) {
+                if (name.startsWith(prefix)) {
+                    current.setProperty(name, previous.getProperty(name));
+                }
+            }
+        }
+
+        return reused;
+    }
+
+
+    /**
+     * Record the files generated by a {@code stage}. Each stage declares its own files, so stages that write to the
+     * target directory at the same time can be recorded independently of each other. Nothing is recorded if the
+     * cache is disabled.
+     * @param stage         The stage of the build that has been run
+     * @param outputs       The files generated by the stage
+     * @see #reuse(Stage)
+     */
+    public void record(@Nonnull Stage stage, @Nonnull Collection<File> outputs) {
+        if (enabled) {
+            current.setProperty(stage.name() + KEY, keys.get(stage));
+
+            for (var output : outputs) {
+                current.setProperty(stage.name() + OUTPUT + output.getName(), fingerprint(output));
+            }
+        }
+    }
+
+
+    /**
+     * Save the manifest for the next build. This should only be called if the build was successful
+     */
+    public void save() {
+        if (enabled) {
+            File file = new File(targetDirectory, MANIFEST);
+
+            try (OutputStream out = new FileOutputStream(file)) {
+                current.store(out, "Build cache manifest - do not edit");
+            } catch (IOException e) {
+                throw new IoException("Failed to write " + file.getAbsolutePath(), e);
+            }
+        }
+    }
+
+
+    @Nonnull
+    private Set<String> listTarget() {
+        String[] names = targetDirectory.list();
+        Set<String> files = new HashSet<>((names == null) ? Set.of() : Arrays.asList(names));
+
+        files.remove(MANIFEST);
+        files.remove(LOG_FILE);
+
+        return files;
+    }
+
+
+    @Nonnull
+    private String fingerprint(@Nonnull File file) {
+        try {
+            return new Fingerprint()
+                .add(Files.readAllBytes(file.toPath()))
+                .build();
+        } catch (IOException e) {
+            throw new IoException("Failed to read " + file.getAbsolutePath(), e);
+        }
+    }
+
+
+    private void delete(@Nonnull File file) {
+        if (file.exists() && !file.delete()) {
+            throw new IoException("Failed to delete " + file.getAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.github.tymefly.eeprom.builder.io.target.eeprom;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.annotation.Nonnull;
+
+import com.github.tymefly.eeprom.builder.exception.InternalException;
+import com.github.tymefly.eeprom.builder.project.output.Rom;
+import com.github.tymefly.eeprom.builder.utils.Preconditions;
+
+/**
+ * A {@link ContentWriter} that runs another writer on its own worker thread. Images, and entries in batches, are
+ * handed over to the worker through a bounded queue so a slow writer only blocks the caller once the queue is full.
+ * Any error raised by the worker is re-thrown by the next call to {@link #apply(EpromData)} or {@link #await()}.
+ */
+class ConcurrentWriter implements ContentWriter {
+    private static final int BATCH_SIZE = 1024;
+    private static final int QUEUE_DEPTH = 16;
+    private static final Runnable END = () -> { };                 // Marks the end of the content
+
+    private final ContentWriter target;
+    private final BlockingQueue<Runnable> queue;
+    private final Thread worker;
+    private List<EpromData> batch;
+    private volatile Throwable failure;
+
+
+    /**
+     * Constructor
+     * @param target        The writer that will be run on the worker thread
+     */
+    ConcurrentWriter(@Nonnull ContentWriter target) {
+        this.target = target;
+        this.queue = new ArrayBlockingQueue<>(QUEUE_DEPTH);
+        this.worker = new Thread(this::run, "writer: " + target.getDescription());
+        this.batch = new ArrayList<>(BATCH_SIZE);
+
+        worker.setDaemon(true);
+    }
+
+
+    @Nonnull
+    @Override
+    public String getDescription() {
+        return target.getDescription();
+    }
+
+
+    @Nonnull
+    @Override
+    public File getDestination() {
+        return target.getDestination();
+    }
+
+
+    /**
+     * Initialise the wrapped writer on the calling thread and then start the worker
+     */
+    @Override
+    public void initialise() {
+        target.initialise();
+        worker.start();
+    }
+
+
+    @Override
+    public boolean needsEntries() {
+        return target.needsEntries();
+    }
+
+
+    @Override
+    public void applyImage(@Nonnull Rom rom, @Nonnull ByteBuffer image) {
+        handOver(() -> target.applyImage(rom, image));
+    }
+
+
+    @Override
+    public void apply(@Nonnull EpromData data) {
+        batch.add(data);
+
+        if (batch.size() == BATCH_SIZE) {
+            handOverBatch();
+        }
+    }
+
+
+    /**
+     * Pass the remaining entries to the worker and signal that there are no more. The wrapped writer is closed on
+     * the worker thread, so this method does not wait for it to complete.
+     * @see #await()
+     */
+    @Override
+    public void close() {
+        Preconditions.checkState((batch != null), "%s has already been closed", getDescription());
+
+        if (!batch.isEmpty()) {
+            handOverBatch();
+        }
+
+        handOver(END);
+        batch = null;
+    }
+
+
+    /**
+     * Wait for the worker to finish writing and closing the wrapped writer
+     */
+    void await() {
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalException("Interrupted while generating " + getDescription(), e);
+        }
+
+        checkFailure();
+    }
+
+
+    /**
+     * Stop the worker and wait for it to release the wrapped writer's file. This is used if the content can not be
+     * completed, so any error raised while the file is released is ignored
+     */
+    void abort() {
+        worker.interrupt();
+
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private void handOverBatch() {
+        List<EpromData> entries = batch;
+
+        handOver(() -> entries.forEach(target::apply));
+        batch = new ArrayList<>(BATCH_SIZE);
+    }
+
+
+    private void handOver(@Nonnull Runnable task) {
+        checkFailure();
+
+        try {
+            queue.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalException("Interrupted while generating " + getDescription(), e);
+        }
+    }
+
+
+    private void checkFailure() {
+        Throwable cause = failure;
+
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause != null) {
+            throw new InternalException("Failed to generate " + getDescription(), cause);
+        }
+    }
+
+
+    // Worker thread. After a failure the queue is still drained so the caller will never block on a full queue
+    private void run() {
+        try {
+            Runnable task = queue.take();
+
+            while (task != END) {
+                execute(task);
+                task = queue.take();
+            }
+
+            if (failure == null) {
+                target.close();
+            } else {
+                release();
+            }
+        } catch (InterruptedException e) {
+            release();
+        } catch (RuntimeException | Error e) {
+            failure = e;
+        }
+    }
+
+
+    // The content can not be completed, so the file is closed only to release it
+    private void release() {
+        try {
+            target.close();
+        } catch (RuntimeException e) {
+            // Do nothing - the content has already been abandoned
+        }
+    }
+
+
+    private void execute(@Nonnull Runnable task) {
+        if (failure == null) {
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                failure = e;
+            }
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package com.github.tymefly.eeprom.builder.io.target.eeprom;
 
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+
 import javax.annotation.Nonnull;
 
-import com.github.tymefly.eeprom.builder.project.input.InputPin;
-import com.github.tymefly.eeprom.builder.project.input.PinState;
 import com.github.tymefly.eeprom.builder.project.output.Rom;
 
 
@@ -32,13 +33,13 @@ public interface Content extends AutoCloseable {
         Entry forMCycle(int mCycle);
 
         /**
-         * Set the flags associated with this entry
-         * @param pin       Input pin signaling the flag
-         * @param state     The state of the flag
+         * Set the state of the flags associated with this entry
+         * @param flags     Bit mask of the active flags
          * @return          A fluent interface
+         * @see com.github.tymefly.eeprom.builder.project.input.InputPins#getFlags()
          */
         @Nonnull
-        Entry withFlag(@Nonnull InputPin pin, @Nonnull PinState state);
+        Entry forFlags(int flags);
 
         /**
          * Set the address associated with this entry
@@ -58,12 +59,12 @@ public interface Content extends AutoCloseable {
         Entry toData(@Nonnull Rom rom, byte value);
 
         /**
-         * Add an optional annotation to this entry
-         * @param annotation    description of the entry
+         * Add an optional annotation to this entry. The annotation is only generated if a writer uses it
+         * @param annotation    Supplier for the description of the entry
          * @return              A fluent interface
          */
         @Nonnull
-        Entry withAnnotation(@Nonnull String annotation);
+        Entry withAnnotation(@Nonnull Supplier<String> annotation);
 
         /**
          * Add all the information in this entry to the EEPROM file.
@@ -73,6 +74,20 @@ public interface Content extends AutoCloseable {
     }
 
 
+    /**
+     * Add the complete image of an EEPROM. This must be called for each EEPROM before any entries are created
+     * @param rom           The EEPROM
+     * @param image         A read only view of every byte in the EEPROM, indexed by address
+     */
+    void image(@Nonnull Rom rom, @Nonnull ByteBuffer image);
+
+    /**
+     * Returns {@literal true} only if an {@link Entry} needs to be created for every address. If this returns
+     * {@literal false} then the EEPROM images contain all the required data
+     * @return {@literal true} only if an {@link Entry} needs to be created for every address
+     */
+    boolean needsEntries();
+
     /**
      * Create a new entry in the EEPROM file
      * @return a new entry in the EEPROM file
@@ -1,22 +1,21 @@
 package com.github.tymefly.eeprom.builder.io.target.eeprom;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.function.Supplier;
 
 import javax.annotation.Nonnull;
 
 import com.github.tymefly.eeprom.builder.io.target.eeprom.map.MapWriter;
-import com.github.tymefly.eeprom.builder.io.target.eeprom.srec.SRecWriter;
 import com.github.tymefly.eeprom.builder.project.global.GlobalData;
-import com.github.tymefly.eeprom.builder.project.input.InputPin;
 import com.github.tymefly.eeprom.builder.project.input.InputPins;
-import com.github.tymefly.eeprom.builder.project.input.PinState;
 import com.github.tymefly.eeprom.builder.project.output.OutputPins;
 import com.github.tymefly.eeprom.builder.project.output.Rom;
 import org.apache.logging.log4j.LogManager;
@@ -27,13 +26,15 @@ import org.apache.logging.log4j.Logger;
  */
 public class ContentGenerator implements Content {
     private static class OutputEntry implements Entry, EpromData {
+        private static final Supplier<String> NO_ANNOTATION = () -> "";
+
         private final ContentGenerator parent;
         private int opCode = -1;
         private int mCycle = -1;
         private int address = -1;
+        private int flags = 0;
         private EnumMap<Rom, Byte> data = new EnumMap<>(Rom.class);
-        private Set<InputPin> activeFlags = new TreeSet<>();
-        private String annotation = "";
+        private Supplier<String> annotation = NO_ANNOTATION;
 
 
         OutputEntry(@Nonnull ContentGenerator parent) {
@@ -59,10 +60,8 @@ public class ContentGenerator implements Content {
 
         @Nonnull
         @Override
-        public Entry withFlag(@Nonnull InputPin pin, @Nonnull PinState state) {
-            if (state == PinState.ACTIVE) {
-                activeFlags.add(pin);
-            }
+        public Entry forFlags(int flags) {
+            this.flags = flags;
 
             return this;
         }
@@ -86,7 +85,7 @@ public class ContentGenerator implements Content {
 
         @Nonnull
         @Override
-        public Entry withAnnotation(@Nonnull String annotation) {
+        public Entry withAnnotation(@Nonnull Supplier<String> annotation) {
             this.annotation = annotation;
 
             return this;
@@ -121,25 +120,27 @@ public class ContentGenerator implements Content {
         }
 
         @Override
-        @Nonnull
-        public Set<InputPin> getActiveFlags() {
-            return Collections.unmodifiableSet(activeFlags);
+        public int getFlags() {
+            return flags;
         }
 
         @Override
         @Nonnull
         public String getAnnotation() {
-            return annotation;
+            return annotation.get();
         }
     }
 
 
     private static final Logger LOGGER = LogManager.getFormatterLogger();
     private final Collection<ContentWriter> targets;
+    private final Collection<ContentWriter> entryTargets;
+    private final Collection<ConcurrentWriter> workers;
+    private final Collection<ContentWriter> unclosed;
 
 
     /**
-     * Constructor
+     * Constructor for a generator that runs all the writers on the calling thread
      * @param targetDirectory   Directory to write map file in
      * @param globalData        Access to the application configuration
      * @param inputPins         A description of all the address pins
@@ -149,15 +150,116 @@ public class ContentGenerator implements Content {
                             @Nonnull GlobalData globalData,
                             @Nonnull InputPins inputPins,
                             @Nonnull OutputPins outputPins) {
-        targets = new ArrayList<>();
+        this(targetDirectory, globalData, inputPins, outputPins, 1);
+    }
+
+
+    /**
+     * Constructor
+     * @param targetDirectory   Directory to write map file in
+     * @param globalData        Access to the application configuration
+     * @param inputPins         A description of all the address pins
+     * @param outputPins        A description of all the data pins which may be in multiple ROMs
+     * @param threads           If this is greater than {@literal 1} then each writer is run on its own thread
+     */
+    public ContentGenerator(@Nonnull File targetDirectory,
+                            @Nonnull GlobalData globalData,
+                            @Nonnull InputPins inputPins,
+                            @Nonnull OutputPins outputPins,
+                            int threads) {
+        this(targetDirectory,
+             globalData,
+             inputPins,
+             outputPins,
+             threads,
+             EnumSet.of(ImageFormat.SREC),
+             ImageFormat.DEFAULT_RECORD_LENGTH);
+    }
+
+
+    /**
+     * Constructor
+     * @param targetDirectory   Directory to write map file in
+     * @param globalData        Access to the application configuration
+     * @param inputPins         A description of all the address pins
+     * @param outputPins        A description of all the data pins which may be in multiple ROMs
+     * @param threads           If this is greater than {@literal 1} then each writer is run on its own thread
+     * @param formats           The formats each EEPROM image is written in
+     * @param recordLength      The maximum number of data bytes in each record of the record based formats
+     */
+    public ContentGenerator(@Nonnull File targetDirectory,
+                            @Nonnull GlobalData globalData,
+                            @Nonnull InputPins inputPins,
+                            @Nonnull OutputPins outputPins,
+                            int threads,
+                            @Nonnull Collection<ImageFormat> formats,
+                            int recordLength) {
+        Collection<ContentWriter> writers = new ArrayList<>();
+
+        writers.add(new MapWriter(targetDirectory, globalData, inputPins, outputPins));
+
+        for (var format : formats) {
+            for (var rom : outputPins.getRoms()) {
+                writers.add(format.writer(targetDirectory, globalData, rom, recordLength));
+            }
+        }
+
+        if (threads > 1) {
+            workers = new ArrayList<>();
+            writers.forEach(w -> workers.add(new ConcurrentWriter(w)));
+            targets = new ArrayList<>(workers);
+        } else {
+            workers = Collections.emptyList();
+            targets = writers;
+        }
 
-        targets.add(new MapWriter(targetDirectory, globalData, inputPins, outputPins));
+        entryTargets = new ArrayList<>();
 
-        for (var rom : outputPins.getRoms()) {
-            targets.add(new SRecWriter(targetDirectory, globalData, rom));
+        for (var target : targets) {
+            if (target.needsEntries()) {
+                entryTargets.add(target);
+            }
+        }
+
+        unclosed = new ArrayList<>(targets);
+
+        try {
+            targets.forEach(ContentWriter::initialise);
+        } catch (RuntimeException e) {
+            abort();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Returns the files written by this generator
+     * @return the files written by this generator
+     */
+    @Nonnull
+    public List<File> getFiles() {
+        List<File> files = new ArrayList<>();
+
+        targets.forEach(t -> files.add(t.getDestination()));
+
+        return files;
+    }
+
+
+    @Override
+    public void image(@Nonnull Rom rom, @Nonnull ByteBuffer image) {
+        try {
+            targets.forEach(t -> t.applyImage(rom, image));
+        } catch (RuntimeException e) {
+            abort();
+            throw e;
         }
+    }
 
-        targets.forEach(ContentWriter::initialise);
+
+    @Override
+    public boolean needsEntries() {
+        return !entryTargets.isEmpty();
     }
 
 
@@ -169,21 +271,64 @@ public class ContentGenerator implements Content {
 
 
     private void apply(@Nonnull OutputEntry entry) {
-        targets.forEach(t -> t.apply(entry));
+        try {
+            entryTargets.forEach(t -> t.apply(entry));
+        } catch (RuntimeException e) {
+            abort();
+            throw e;
+        }
     }
 
 
+    /**
+     * Close all the writers. If the writers are running on their own threads then this method waits for all of
+     * them to complete; the first error raised by any of them is re-thrown.
+     */
     @Override
     public void close() {
+        try {
+            for (ContentWriter target : targets) {
+                String description = target.getDescription();
+                String pad = "-".repeat(description.length());
+
+                LOGGER.info("/------%s---------\\", pad);
+                LOGGER.info("|  Generating %s  |", description);
+                LOGGER.info("\\------%s---------/", pad);
+                unclosed.remove(target);
+                target.close();
+            }
+
+            workers.forEach(ConcurrentWriter::await);
+        } catch (RuntimeException e) {
+            abort();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Abandon the content after a failure. Any worker threads are stopped and every writer that has not been closed
+     * is closed to release its file; the content of those files is incomplete. Errors raised while the files are
+     * released are ignored. This can be called more than once and after {@link #close()} has failed.
+     */
+    public void abort() {
+        workers.forEach(ConcurrentWriter::abort);
+
+        if (workers.isEmpty()) {
+            for (var target : unclosed) {
+                release(target);
+            }
+        }
+
+        unclosed.clear();
+    }
 
-        for (ContentWriter target : targets) {
-            String description = target.getDescription();
-            String pad = "-".repeat(description.length());
 
-            LOGGER.info("/------%s---------\\", pad);
-            LOGGER.info("|  Generating %s  |", description);
-            LOGGER.info("\\------%s---------/", pad);
+    private static void release(@Nonnull ContentWriter target) {
+        try {
             target.close();
+        } catch (RuntimeException e) {
+            // Do nothing - the content has already been abandoned
         }
     }
 }
@@ -1,7 +1,12 @@
 package com.github.tymefly.eeprom.builder.io.target.eeprom;
 
+import java.io.File;
+import java.nio.ByteBuffer;
+
 import javax.annotation.Nonnull;
 
+import com.github.tymefly.eeprom.builder.project.output.Rom;
+
 
 /**
  * Contract for a class that writes EEPROM data
@@ -14,15 +19,46 @@ public interface ContentWriter extends AutoCloseable {
     @Nonnull
     String getDescription();
 
+
+    /**
+     * Returns the file generated by this object
+     * @return the file generated by this object
+     */
+    @Nonnull
+    File getDestination();
+
     /**
      * Initialise the output format. This may involve adding metadata to the generated file
      */
     void initialise();
 
 
+    /**
+     * Returns {@literal true} only if this writer needs {@link #apply(EpromData)} to be called for every address.
+     * Writers that only need the complete EEPROM images should return {@literal false}
+     * @return {@literal true} only if this writer needs {@link #apply(EpromData)} to be called for every address
+     * @see #applyImage(Rom, ByteBuffer)
+     */
+    default boolean needsEntries() {
+        return true;
+    }
+
+
+    /**
+     * Apply the complete image of an EEPROM. This is called once for each EEPROM before any entries are applied.
+     * The image is shared with the other writers, so it is read only, and it must not be modified after it has been
+     * passed to this method.
+     * @param rom       The EEPROM
+     * @param image     Every byte in the EEPROM, indexed by address
+     */
+    default void applyImage(@Nonnull Rom rom, @Nonnull ByteBuffer image) {
+    }
+
+
     /**
      * Apply a new entry to the EEPROM
      * @param data      element to apply
+     * @see #needsEntries()
      */
     void apply(@Nonnull EpromData data);
 
@@ -0,0 +1,13 @@
+package com.github.tymefly.eeprom.builder.io.target.eeprom;
+
+/**
+ * Enumeration of the orders that the entries for each address can be generated in
+ * @see Content#entry()
+ */
+public enum EntryOrder {
+    /** Grouped by opCode, then by flag state and then by machine cycle */
+    OPCODE,
+
+    /** Every address in the EEPROM, in ascending order, including the addresses that are not used by any opCode */
+    ADDRESS
+}
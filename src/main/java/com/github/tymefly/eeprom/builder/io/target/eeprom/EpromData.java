@@ -1,11 +1,9 @@
 package com.github.tymefly.eeprom.builder.io.target.eeprom;
 
 import java.util.Map;
-import java.util.Set;
 
 import javax.annotation.Nonnull;
 
-import com.github.tymefly.eeprom.builder.project.input.InputPin;
 import com.github.tymefly.eeprom.builder.project.output.Rom;
 
 /**
@@ -39,14 +37,15 @@ public interface EpromData {
     Map<Rom, Byte> getData();
 
     /**
-     * Returns all of the active flags associated with this entry
-     * @return all of the active flags associated with this entry
+     * Returns a bit mask of the active flags associated with this entry
+     * @return a bit mask of the active flags associated with this entry
+     * @see com.github.tymefly.eeprom.builder.project.input.InputPins#getFlags()
      */
-    @Nonnull
-    Set<InputPin> getActiveFlags();
+    int getFlags();
 
     /**
-     * Returns the annotations associated with this entry
+     * Returns the annotations associated with this entry. The text may be generated each time this method is
+     * called, so writers that do not use it should not call this method
      * @return the annotations associated with this entry
      */
     @Nonnull
@@ -0,0 +1,68 @@
+package com.github.tymefly.eeprom.builder.io.target.eeprom;
+
+import java.io.File;
+
+import javax.annotation.Nonnull;
+
+import com.github.tymefly.eeprom.builder.io.target.eeprom.bin.BinWriter;
+import com.github.tymefly.eeprom.builder.io.target.eeprom.hex.HexWriter;
+import com.github.tymefly.eeprom.builder.io.target.eeprom.srec.SRecWriter;
+import com.github.tymefly.eeprom.builder.project.global.GlobalData;
+import com.github.tymefly.eeprom.builder.project.output.Rom;
+
+/**
+ * Enumeration of the file formats that the EEPROM images can be written in
+ */
+public enum ImageFormat {
+    /** S-Record files, which include the project metadata */
+    SREC(SRecWriter::new),
+
+    /** Intel HEX files */
+    HEX(HexWriter::new),
+
+    /** Raw binary images with one byte for each address */
+    BIN((targetDirectory, globalData, rom, recordLength) -> new BinWriter(targetDirectory, globalData, rom));
+
+
+    /** The default maximum number of data bytes in each record of the record based formats */
+    public static final int DEFAULT_RECORD_LENGTH = 16;
+
+    /** The largest record length that is supported by all of the record based formats */
+    public static final int MAX_RECORD_LENGTH = 250;
+
+
+    @FunctionalInterface
+    private interface Factory {
+        @Nonnull
+        ContentWriter create(@Nonnull File targetDirectory,
+                             @Nonnull GlobalData globalData,
+                             @Nonnull Rom rom,
+                             int recordLength);
+    }
+
+
+    private final Factory factory;
+
+
+    ImageFormat(@Nonnull Factory factory) {
+        this.factory = factory;
+    }
+
+
+    /**
+     * Returns a new writer for the image of a single EEPROM in this format
+     * @param targetDirectory       Directory to write data to
+     * @param globalData            Access to the global data configuration
+     * @param rom                   The ROM that needs to be generated
+     * @param recordLength          The maximum number of data bytes in each record. This is ignored by formats
+     *                              that are not record based
+     * @return a new writer for the image of a single EEPROM in this format
+     */
+    @Nonnull
+    ContentWriter writer(@Nonnull File targetDirectory,
+                         @Nonnull GlobalData globalData,
+                         @Nonnull Rom rom,
+                         int recordLength) {
+        return factory.create(targetDirectory, globalData, rom, recordLength);
+    }
+}
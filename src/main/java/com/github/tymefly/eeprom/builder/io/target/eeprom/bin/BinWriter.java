@@ -0,0 +1,120 @@
+package com.github.tymefly.eeprom.builder.io.target.eeprom.bin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import javax.annotation.Nonnull;
+
+import com.github.tymefly.eeprom.builder.exception.IoException;
+import com.github.tymefly.eeprom.builder.io.target.eeprom.ContentWriter;
+import com.github.tymefly.eeprom.builder.io.target.eeprom.EpromData;
+import com.github.tymefly.eeprom.builder.project.global.GlobalData;
+import com.github.tymefly.eeprom.builder.project.output.Rom;
+import com.github.tymefly.eeprom.builder.utils.Preconditions;
+
+
+/**
+ * A ROM writer that generates raw binary images. The image contains one byte for every address in the EEPROM
+ * and no metadata, so it can be loaded by simple programmers and simulators without any parsing.
+ * The shared image of the EEPROM is passed straight to the file channel; this writer does not keep a copy of it.
+ */
+public class BinWriter implements ContentWriter {
+    private final Rom rom;
+    private final File destination;
+    private final int size;
+    private ByteBuffer image;
+
+
+    /**
+     * Create a new class to write the data for a single EEPROM
+     * @param targetDirectory       Directory to write data to
+     * @param globalData            Access to the global data configuration
+     * @param rom                   The ROM that needs to be generated
+     */
+    public BinWriter(@Nonnull File targetDirectory, @Nonnull GlobalData globalData, @Nonnull Rom rom) {
+        this(new File(targetDirectory, rom.fileName("bin")), rom, 2 << globalData.getMaxAddressBit());
+    }
+
+
+    /**
+     * Create a new class to write an image of any size
+     * @param destination           The file to write
+     * @param rom                   The ROM that needs to be generated
+     * @param size                  The number of bytes in the image
+     */
+    BinWriter(@Nonnull File destination, @Nonnull Rom rom, int size) {
+        this.rom = rom;
+        this.destination = destination;
+        this.size = size;
+        this.image = null;
+    }
+
+
+    @Nonnull
+    @Override
+    public String getDescription() {
+        return destination.getName();
+    }
+
+
+    @Nonnull
+    @Override
+    public File getDestination() {
+        return destination;
+    }
+
+    @Override
+    public void initialise() {
+    }
+
+
+    @Override
+    public boolean needsEntries() {
+        return false;
+    }
+
+
+    @Override
+    public void applyImage(@Nonnull Rom rom, @Nonnull ByteBuffer image) {
+        if (rom == this.rom) {
+            this.image = image;
+        }
+    }
+
+
+    @Override
+    public void apply(@Nonnull EpromData data) {
+        // Do nothing - the data is taken from the complete image
+    }
+
+
+    @Override
+    public void close() {
+        Preconditions.checkState((image != null), "No image has been applied to %s", getDescription());
+
+        try (FileChannel channel = FileChannel.open(destination.toPath(),
+                                                    StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING,
+                                                    StandardOpenOption.WRITE)) {
+            ByteBuffer source = image.duplicate();
+
+            source.rewind()
+                  .limit(Math.min(size, source.capacity()));
+
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        } catch (IOException e) {
+            throw new IoException("Failed to write " + destination.getAbsolutePath(), e);
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        return "BinWriter{rom=" + rom + '}';
+    }
+}
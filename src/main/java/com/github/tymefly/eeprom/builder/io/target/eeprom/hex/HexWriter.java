@@ -0,0 +1,197 @@
+package com.github.tymefly.eeprom.builder.io.target.eeprom.hex;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import javax.annotation.Nonnull;
+
+import com.github.tymefly.eeprom.builder.exception.IoException;
+import com.github.tymefly.eeprom.builder.io.target.eeprom.ContentWriter;
+import com.github.tymefly.eeprom.builder.io.target.eeprom.EpromData;
+import com.github.tymefly.eeprom.builder.project.global.GlobalData;
+import com.github.tymefly.eeprom.builder.project.output.Rom;
+import com.github.tymefly.eeprom.builder.utils.Preconditions;
+import com.github.tymefly.eeprom.builder.utils.SystemLimits;
+
+
+/**
+ * A ROM writer that generates Intel HEX files. The shared image of the EEPROM is encoded in a single pass
+ * when the writer is closed. Extended Linear Address records are written for images that are larger
+ * than {@literal 64K}. {@link GlobalData#MAX_ADDRESS_BIT} currently limits images to {@literal 16K}, so these
+ * records are only written if larger EEPROMs are supported; the writer does not depend on that limit.
+ */
+public class HexWriter implements ContentWriter {
+    private static final int MAX_RECORD_LENGTH = 0xff;
+    private static final int DATA_RECORD = 0x00;
+    private static final int END_OF_FILE_RECORD = 0x01;
+    private static final int EXTENDED_LINEAR_ADDRESS_RECORD = 0x04;
+    private static final int SEGMENT_BITS = 16;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    private static final int RECORD_OVERHEAD = 5;               // Length, 2 address bytes, type and checksum
+    private static final byte START_CODE = ':';
+    private static final byte[] HEX_DIGITS =                    // Upper case, as Intel HEX tools expect
+        "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private final Rom rom;
+    private final File destination;
+    private final int recordLength;
+    private final int size;
+    private final byte[] record;
+    private final ByteBuffer segment;
+    private ByteBuffer image;
+
+
+    /**
+     * Create a new class to write the data for a single EEPROM
+     * @param targetDirectory       Directory to write data to
+     * @param globalData            Access to the global data configuration
+     * @param rom                   The ROM that needs to be generated
+     * @param recordLength          The maximum number of data bytes in each record
+     */
+    public HexWriter(@Nonnull File targetDirectory,
+                     @Nonnull GlobalData globalData,
+                     @Nonnull Rom rom,
+                     int recordLength) {
+        this(new File(targetDirectory, rom.fileName("hex")), rom, recordLength, 2 << globalData.getMaxAddressBit());
+    }
+
+
+    /**
+     * Create a new class to write an image of any size. This allows images that are larger than
+     * {@link GlobalData#MAX_ADDRESS_BIT} permits to be written
+     * @param destination           The file to write
+     * @param rom                   The ROM that needs to be generated
+     * @param recordLength          The maximum number of data bytes in each record
+     * @param size                  The number of bytes in the image
+     */
+    HexWriter(@Nonnull File destination, @Nonnull Rom rom, int recordLength, int size) {
+        Preconditions.checkArgument(((recordLength > 0) && (recordLength <= MAX_RECORD_LENGTH)),
+                                    "Invalid record length %d", recordLength);
+
+        this.rom = rom;
+        this.destination = destination;
+        this.recordLength = recordLength;
+        this.size = size;
+        this.image = null;
+        this.segment = ByteBuffer.allocate(2);
+        this.record = new byte[1 +
+                               ((RECORD_OVERHEAD + Math.max(recordLength, segment.capacity())) * 2) +
+                               LINE_SEPARATOR.length];
+    }
+
+
+    @Nonnull
+    @Override
+    public String getDescription() {
+        return destination.getName();
+    }
+
+
+    @Nonnull
+    @Override
+    public File getDestination() {
+        return destination;
+    }
+
+    @Override
+    public void initialise() {
+    }
+
+
+    @Override
+    public boolean needsEntries() {
+        return false;
+    }
+
+
+    @Override
+    public void applyImage(@Nonnull Rom rom, @Nonnull ByteBuffer image) {
+        if (rom == this.rom) {
+            this.image = image;
+        }
+    }
+
+
+    @Override
+    public void apply(@Nonnull EpromData data) {
+        // Do nothing - the data is taken from the complete image
+    }
+
+
+    @Override
+    public void close() {
+        Preconditions.checkState((image != null), "No image has been applied to %s", getDescription());
+
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(destination))) {
+            int length = Math.min(size, image.capacity());
+            int address = 0;
+            int current = 0;
+
+            while (address < length) {
+                int upper = address >>> SEGMENT_BITS;
+                int offset = address & (SEGMENT_SIZE - 1);
+                int count = Math.min(Math.min(length - address, recordLength), SEGMENT_SIZE - offset);
+
+                if (upper != current) {
+                    segment.put(0, (byte) (upper >>> SystemLimits.BITS_IN_BYTE))
+                           .put(1, (byte) upper);
+                    write(out, EXTENDED_LINEAR_ADDRESS_RECORD, 0, segment, 0, segment.capacity());
+                    current = upper;
+                }
+
+                write(out, DATA_RECORD, offset, image, address, count);
+                address += count;
+            }
+
+            write(out, END_OF_FILE_RECORD, 0, image, 0, 0);
+        } catch (IOException e) {
+            throw new IoException("Failed to write " + destination.getAbsolutePath(), e);
+        }
+    }
+
+
+    // Encode a single record into the reusable record buffer and then write it
+    private void write(@Nonnull OutputStream out, int type, int offset, @Nonnull ByteBuffer data, int from, int length)
+            throws IOException {
+        int checksum = length + (offset >>> SystemLimits.BITS_IN_BYTE) + offset + type;
+        int index = 0;
+
+        record[index++] = START_CODE;
+        index = hex(index, length);
+        index = hex(index, offset >>> SystemLimits.BITS_IN_BYTE);
+        index = hex(index, offset);
+        index = hex(index, type);
+
+        for (int i = from; i < from + length; i++) {
+            byte value = data.get(i);
+
+            checksum += value;
+            index = hex(index, value);
+        }
+
+        index = hex(index, -checksum);
+
+        System.arraycopy(LINE_SEPARATOR, 0, record, index, LINE_SEPARATOR.length);
+        out.write(record, 0, index + LINE_SEPARATOR.length);
+    }
+
+
+    private int hex(int index, int value) {
+        record[index] = HEX_DIGITS[(value >>> SystemLimits.BITS_IN_HEX_DIGIT) & SystemLimits.HEX_DIGIT_MASK];
+        record[index + 1] = HEX_DIGITS[value & SystemLimits.HEX_DIGIT_MASK];
+
+        return index + 2;
+    }
+
+
+    @Override
+    public String toString() {
+        return "HexWriter{rom=" + rom + '}';
+    }
+}
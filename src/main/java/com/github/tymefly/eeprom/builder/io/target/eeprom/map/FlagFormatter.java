@@ -1,26 +1,23 @@
 package com.github.tymefly.eeprom.builder.io.target.eeprom.map;
 
-import java.util.NavigableSet;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.List;
 
 import javax.annotation.Nonnull;
 
 import com.github.tymefly.eeprom.builder.project.input.InputPin;
 import com.github.tymefly.eeprom.builder.project.input.InputPins;
-import com.github.tymefly.eeprom.builder.project.input.InputTypes;
 import com.github.tymefly.eeprom.builder.utils.StringUtils;
 
 /**
  * Format the flags in the Map report
  */
 class FlagFormatter {
-    private final NavigableSet<InputPin> flags;
+    private final List<InputPin> flags;
     private final int flagWidth;
     private final int formatWidth;
 
     FlagFormatter(@Nonnull InputPins inputPins) {
-        flags = new TreeSet<>(inputPins.getPins(InputTypes.FLAG));
+        flags = inputPins.getFlags();
         flagWidth = flags.stream()
              .mapToInt(f -> f.getName().length())
              .max()
@@ -34,12 +31,18 @@ class FlagFormatter {
     }
 
 
+    int stateCount() {
+        return 1 << flags.size();
+    }
+
+
     @Nonnull
-    String format(@Nonnull Set<InputPin> active) {
+    String format(int active) {
         StringBuilder buffer = new StringBuilder();
+        int index = flags.size();
 
-        for (var flag : flags) {
-            String name = (active.contains(flag) ? flag.getName() : "");
+        while (index-- != 0) {                                  // Highest address line first
+            String name = (((active >> index) & 1) != 0 ? flags.get(index).getName() : "");
 
             StringUtils.append(buffer, name, flagWidth);
         }
@@ -0,0 +1,300 @@
+package com.github.tymefly.eeprom.builder.io.target.eeprom.map;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import javax.annotation.Nonnull;
+
+import com.github.tymefly.eeprom.builder.exception.IoException;
+import com.github.tymefly.eeprom.builder.utils.StringUtils;
+import com.github.tymefly.eeprom.builder.utils.SystemLimits;
+
+/**
+ * Encoder for the lines in the map file. Every fixed width field is rendered once, when the encoder is created,
+ * and then copied into a reusable buffer that is flushed to the file through a {@link FileChannel}. Encoding an
+ * entry does not allocate any memory unless its annotation contains non-ASCII text.
+ */
+class MapEncoder implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int BYTE_VALUES = SystemLimits.BYTE_MASK + 1;
+    private static final byte[] HEX_DIGITS =                    // Lower case, as the map has always been written
+        "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final byte ASCII_LIMIT = 0x7f;
+    private static final int ADDRESS_HEX_DIGITS = 4;
+
+    private static final byte[] OPCODE_SUFFIX = bytes(") ");
+    private static final byte[] ADDRESS_SUFFIX = bytes(")   ");
+    private static final byte[] DATA_SUFFIX = bytes(")   ");
+
+    private static final int OPCODE_WIDTH = fieldWidth(SystemLimits.BITS_IN_BYTE, 2, OPCODE_SUFFIX);
+    private static final int DATA_WIDTH = fieldWidth(SystemLimits.BITS_IN_BYTE, 2, DATA_SUFFIX);
+
+    private static final byte[] OPCODES = renderAll(BYTE_VALUES, SystemLimits.BITS_IN_BYTE, 2, OPCODE_SUFFIX);
+    private static final byte[] DATA = renderAll(BYTE_VALUES, SystemLimits.BITS_IN_BYTE, 2, DATA_SUFFIX);
+    private static final byte[][] MCYCLES = renderMCycles();
+
+    private final File destination;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final FlagFormatter flagFormatter;
+    private final byte[][] flags;
+    private final byte[] addresses;
+    private final int addressWidth;
+
+
+    /**
+     * Constructor
+     * @param destination       The map file
+     * @param flagFormatter     Formatter for the flags
+     * @param addressBits       The number of binary digits used to render the address
+     * @param addressCount      The number of addresses in the EEPROM
+     */
+    MapEncoder(@Nonnull File destination, @Nonnull FlagFormatter flagFormatter, int addressBits, int addressCount) {
+        this.destination = destination;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.flagFormatter = flagFormatter;
+        this.flags = new byte[flagFormatter.stateCount()][];
+        this.addressWidth = fieldWidth(addressBits, ADDRESS_HEX_DIGITS, ADDRESS_SUFFIX);
+        this.addresses = renderAll(addressCount, addressBits, ADDRESS_HEX_DIGITS, ADDRESS_SUFFIX);
+
+        try {
+            channel = FileChannel.open(destination.toPath(),
+                                       StandardOpenOption.CREATE,
+                                       StandardOpenOption.TRUNCATE_EXISTING,
+                                       StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new IoException("Failed to generate Map file " + destination.getAbsolutePath(), e);
+        }
+    }
+
+
+    @Nonnull
+    private static byte[] bytes(@Nonnull String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    // Width of a "<binary> (<hex>)<suffix>" field
+    private static int fieldWidth(int bits, int hexDigits, @Nonnull byte[] suffix) {
+        int spaces = (bits - 1) / StringUtils.BINARY_SPACING;
+
+        return bits + spaces + 2 + hexDigits + suffix.length;
+    }
+
+
+    // Render "<binary> (<hex>)<suffix>" for every value in the range 0 to count - 1 into a single table
+    @Nonnull
+    private static byte[] renderAll(int count, int bits, int hexDigits, @Nonnull byte[] suffix) {
+        int width = fieldWidth(bits, hexDigits, suffix);
+        byte[] table = new byte[count * width];
+
+        for (int value = 0; value < count; value++) {
+            int index = value * width;
+            int remaining = bits;
+            int space = 0;
+            int hexIndex = index + width - suffix.length - 1;
+
+            System.arraycopy(suffix, 0, table, index + width - suffix.length, suffix.length);
+
+            for (int digit = 0, v = value; digit < hexDigits; digit++, v >>>= SystemLimits.BITS_IN_HEX_DIGIT) {
+                table[hexIndex--] = HEX_DIGITS[v & SystemLimits.HEX_DIGIT_MASK];
+            }
+
+            table[hexIndex--] = '(';
+            table[hexIndex--] = ' ';
+
+            for (int v = value; remaining-- != 0; v >>>= 1) {          // Same layout as StringUtils.asBinary()
+                table[hexIndex--] = (byte) ((v & 1) == 1 ? '1' : '0');
+
+                if ((remaining != 0) && (++space == StringUtils.BINARY_SPACING)) {
+                    table[hexIndex--] = ' ';
+                    space = 0;
+                }
+            }
+        }
+
+        return table;
+    }
+
+
+    @Nonnull
+    private static byte[][] renderMCycles() {
+        byte[][] table = new byte[BYTE_VALUES][];
+
+        for (int mCycle = 0; mCycle < BYTE_VALUES; mCycle++) {
+            table[mCycle] = bytes(String.format("%2d    ", mCycle));
+        }
+
+        return table;
+    }
+
+
+    /**
+     * Encode the binary and hex values of an opCode
+     * @param opCode        The opCode
+     * @return              A fluent interface
+     */
+    @Nonnull
+    MapEncoder opCode(int opCode) {
+        return put(OPCODES, (opCode & SystemLimits.BYTE_MASK) * OPCODE_WIDTH, OPCODE_WIDTH);
+    }
+
+
+    /**
+     * Encode the names of the active flags
+     * @param state         Bit mask of the active flags
+     * @return              A fluent interface
+     */
+    @Nonnull
+    MapEncoder flags(int state) {
+        byte[] text = flags[state];
+
+        if (text == null) {
+            text = bytes(flagFormatter.format(state) + " ");
+            flags[state] = text;
+        }
+
+        return put(text, 0, text.length);
+    }
+
+
+    /**
+     * Encode a machine cycle
+     * @param mCycle        The machine cycle
+     * @return              A fluent interface
+     */
+    @Nonnull
+    MapEncoder mCycle(int mCycle) {
+        byte[] text = MCYCLES[mCycle];
+
+        return put(text, 0, text.length);
+    }
+
+
+    /**
+     * Encode the binary and hex values of an address
+     * @param address       The address in the EEPROM
+     * @return              A fluent interface
+     */
+    @Nonnull
+    MapEncoder address(int address) {
+        return put(addresses, address * addressWidth, addressWidth);
+    }
+
+
+    /**
+     * Encode the binary and hex values of a data byte
+     * @param data          A data byte from the EEPROM
+     * @return              A fluent interface
+     */
+    @Nonnull
+    MapEncoder data(byte data) {
+        return put(DATA, (data & SystemLimits.BYTE_MASK) * DATA_WIDTH, DATA_WIDTH);
+    }
+
+
+    /**
+     * Encode some free format text
+     * @param text          The text to encode
+     * @return              A fluent interface
+     */
+    @Nonnull
+    MapEncoder text(@Nonnull String text) {
+        int length = text.length();
+        boolean ascii = (length <= BUFFER_SIZE);
+
+        if (ascii) {
+            ensure(length);
+
+            int start = buffer.position();
+
+            for (int index = 0; ascii && (index < length); index++) {
+                char c = text.charAt(index);
+
+                ascii = (c <= ASCII_LIMIT);
+                buffer.put((byte) c);
+            }
+
+            if (!ascii) {
+                buffer.position(start);                                 // Roll back and fall back to UTF-8
+            }
+        }
+
+        if (!ascii) {
+            byte[] encoded = bytes(text);
+
+            put(encoded, 0, encoded.length);
+        }
+
+        return this;
+    }
+
+
+    /**
+     * Terminate the current line
+     * @return              A fluent interface
+     */
+    @Nonnull
+    MapEncoder endLine() {
+        return put(LINE_SEPARATOR, 0, LINE_SEPARATOR.length);
+    }
+
+
+    /**
+     * Flush any remaining text to the file and close it
+     */
+    @Override
+    public void close() {
+        flush();
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new IoException("Failed to write report " + destination, e);
+        }
+    }
+
+
+    @Nonnull
+    private MapEncoder put(@Nonnull byte[] source, int offset, int length) {
+        if (length > BUFFER_SIZE) {
+            flush();
+            write(ByteBuffer.wrap(source, offset, length));
+        } else {
+            ensure(length);
+            buffer.put(source, offset, length);
+        }
+
+        return this;
+    }
+
+
+    private void ensure(int length) {
+        if (buffer.remaining() < length) {
+            flush();
+        }
+    }
+
+
+    private void flush() {
+        buffer.flip();
+        write(buffer);
+        buffer.clear();
+    }
+
+
+    private void write(@Nonnull ByteBuffer source) {
+        try {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        } catch (IOException e) {
+            throw new IoException("Failed to write report " + destination, e);
+        }
+    }
+}
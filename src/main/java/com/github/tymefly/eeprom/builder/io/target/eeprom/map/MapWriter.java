@@ -1,11 +1,6 @@
 package com.github.tymefly.eeprom.builder.io.target.eeprom.map;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.Writer;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collection;
 
@@ -24,7 +19,6 @@ import com.github.tymefly.eeprom.builder.utils.StringUtils;
  * Write the content of the EEPROM as a map file
  */
 public class MapWriter implements ContentWriter {
-    private static final int BITS_IN_BYTE = 8;
     private static final int ROM_DATA_WIDTH = 11;
     private static final int OPCODE_WIDTH = 15;
     private static final int ADDRESS_HEX_WIDTH = 6;
@@ -34,7 +28,7 @@ public class MapWriter implements ContentWriter {
     private final File destination;
     private final FlagFormatter flagFormatter;
     private final int addressBits;
-    private final Writer writer;
+    private final MapEncoder encoder;
     private final String header;
 
     private int lineCount;                  // Count up
@@ -58,14 +52,10 @@ public class MapWriter implements ContentWriter {
 
         Collection<Rom> roms = outputPins.getRoms();
 
-        try {
-            writer = new BufferedWriter(new FileWriter(destination, StandardCharsets.UTF_8));
-            header = generateHeader(roms);
-            lineCount = 0;
-            headerCount = 0;
-        } catch (IOException e) {
-            throw new IoException("Failed to generate Map file " + destination.getAbsolutePath(), e);
-        }
+        encoder = new MapEncoder(destination, flagFormatter, addressBits, 1 << (addressBits + 1));
+        header = generateHeader(roms);
+        lineCount = 0;
+        headerCount = 0;
     }
 
 
@@ -94,6 +84,13 @@ public class MapWriter implements ContentWriter {
         return FILE_NAME;
     }
 
+
+    @Nonnull
+    @Override
+    public File getDestination() {
+        return destination;
+    }
+
     @Override
     public void initialise() {
     }
@@ -101,15 +98,6 @@ public class MapWriter implements ContentWriter {
 
     @Override
     public void apply(@Nonnull EpromData data) {
-        StringBuilder dataBytes = new StringBuilder();
-
-        for (var dataValue : data.getData().values()) {
-            dataBytes.append(StringUtils.asBinary(dataValue, BITS_IN_BYTE))
-                     .append(" (")
-                     .append(String.format("%02x", dataValue))
-                     .append(")   ");
-        }
-
         if (headerCount-- == 0) {
             if (lineCount != 0) {
                 report("");
@@ -121,15 +109,17 @@ public class MapWriter implements ContentWriter {
 
         lineCount++;
 
-        report("%s (%02x) %s %2d    %s (%04x)   %s%s",
-                StringUtils.asBinary(data.getOpCode(), BITS_IN_BYTE),
-                data.getOpCode(),
-                flagFormatter.format(data.getActiveFlags()),
-                data.getMCycle(),
-                StringUtils.asBinary(data.getAddress(), addressBits),
-                data.getAddress(),
-                dataBytes,
-                data.getAnnotation());
+        encoder.opCode(data.getOpCode())
+               .flags(data.getFlags())
+               .mCycle(data.getMCycle())
+               .address(data.getAddress());
+
+        for (var dataValue : data.getData().values()) {
+            encoder.data(dataValue);
+        }
+
+        encoder.text(data.getAnnotation())
+               .endLine();
     }
 
 
@@ -141,11 +131,7 @@ public class MapWriter implements ContentWriter {
         report("");
         report("Generated at %tF %tR", timeStamp, timeStamp);
 
-        try {
-            writer.close();
-        } catch (IOException e) {
-            throw new IoException("Failed to write report " + destination, e);
-        }
+        encoder.close();
     }
 
 
@@ -156,13 +142,7 @@ public class MapWriter implements ContentWriter {
      * @throws IoException  if the report could not be written
      */
     private void report(@Nonnull String message, Object... args) throws IoException {
-        try {
-            String line = String.format(message, args);
-
-            writer.write(line);
-            writer.write(System.lineSeparator());
-        } catch (IOException e) {
-            throw new IoException("Failed to write report " + destination, e);
-        }
+        encoder.text(String.format(message, args))
+               .endLine();
     }
 }
@@ -1,6 +1,7 @@
 package com.github.tymefly.eeprom.builder.io.target.eeprom.srec;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
 
 import javax.annotation.Nonnull;
@@ -21,8 +22,10 @@ public class SRecWriter implements ContentWriter {
 
     private final Rom rom;
     private final GlobalData globalData;
+    private final File destination;
     private final SWriter writer;
     private final byte[] buffer;
+    private final int recordLength;
 
 
     /**
@@ -32,12 +35,27 @@ public class SRecWriter implements ContentWriter {
      * @param rom                   The ROM that needs to be generated
      */
     public SRecWriter(@Nonnull File targetDirectory, @Nonnull GlobalData globalData, @Nonnull Rom rom) {
-        File destination = new File(targetDirectory, rom.fileName("srec"));
+        this(targetDirectory, globalData, rom, SREC_LENGTH);
+    }
+
 
+    /**
+     * Create a new class to write the data for a single EEPROM
+     * @param targetDirectory       Directory to write data to
+     * @param globalData            Access to the global data configuration
+     * @param rom                   The ROM that needs to be generated
+     * @param recordLength          The maximum number of data bytes in each record
+     */
+    public SRecWriter(@Nonnull File targetDirectory,
+                      @Nonnull GlobalData globalData,
+                      @Nonnull Rom rom,
+                      int recordLength) {
         this.rom = rom;
         this.globalData = globalData;
+        this.destination = new File(targetDirectory, rom.fileName("srec"));
         this.writer = new SWriter(destination);
         this.buffer = new byte[2 << globalData.getMaxAddressBit()];
+        this.recordLength = recordLength;
     }
 
 
@@ -47,6 +65,13 @@ public class SRecWriter implements ContentWriter {
         return rom.toString();
     }
 
+
+    @Nonnull
+    @Override
+    public File getDestination() {
+        return destination;
+    }
+
     @Override
     public void initialise() {
         writer.withHeader("Name: " + globalData.getName());
@@ -61,10 +86,24 @@ public class SRecWriter implements ContentWriter {
 
 
     @Override
-    public void apply(@Nonnull EpromData data) {
-        int address = data.getAddress();
+    public boolean needsEntries() {
+        return false;
+    }
 
-        buffer[address] = data.getData().get(rom);
+
+    @Override
+    public void applyImage(@Nonnull Rom rom, @Nonnull ByteBuffer image) {
+        if (rom == this.rom) {
+            image.duplicate()
+                 .rewind()
+                 .get(buffer, 0, Math.min(buffer.length, image.capacity()));
+        }
+    }
+
+
+    @Override
+    public void apply(@Nonnull EpromData data) {
+        // Do nothing - the data is taken from the complete image
     }
 
 
@@ -73,7 +112,7 @@ public class SRecWriter implements ContentWriter {
         int address = 0;
 
         while (address < buffer.length) {
-            int size = Math.min(buffer.length - address, SREC_LENGTH);
+            int size = Math.min(buffer.length - address, recordLength);
 
             writer.withData(address, buffer, address, size);
             address += size;
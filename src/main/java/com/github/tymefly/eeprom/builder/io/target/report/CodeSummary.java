@@ -0,0 +1,68 @@
+package com.github.tymefly.eeprom.builder.io.target.report;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A report that describes how the opCodes are used as objects rather than as text files. Nothing is written to disc.
+ */
+public class CodeSummary implements Report {
+    private final SortedMap<Integer, List<String>> used = new TreeMap<>();
+    private final SortedSet<Integer> unused = new TreeSet<>();
+    private final SortedMap<String, SortedSet<Integer>> byName = new TreeMap<>();
+
+
+    @Override
+    public void unusedCode(int code) {
+        unused.add(code);
+    }
+
+
+    @Override
+    public void usedCode(int code, @Nonnull Collection<String> names) {
+        used.put(code, List.copyOf(names));
+        names.forEach(n -> byName.computeIfAbsent(n, k -> new TreeSet<>()).add(code));
+    }
+
+
+    @Override
+    public void close() {
+    }
+
+
+    /**
+     * Returns the names of the instruction(s) that use each defined opCode, sorted by opCode
+     * @return the names of the instruction(s) that use each defined opCode
+     */
+    @Nonnull
+    public SortedMap<Integer, List<String>> getUsedCodes() {
+        return Collections.unmodifiableSortedMap(used);
+    }
+
+
+    /**
+     * Returns the opCodes that are not used by any instruction
+     * @return the opCodes that are not used by any instruction
+     */
+    @Nonnull
+    public SortedSet<Integer> getUnusedCodes() {
+        return Collections.unmodifiableSortedSet(unused);
+    }
+
+
+    /**
+     * Returns the opCodes assigned to each instruction, sorted by instruction name
+     * @return the opCodes assigned to each instruction
+     */
+    @Nonnull
+    public SortedMap<String, SortedSet<Integer>> getInstructions() {
+        return Collections.unmodifiableSortedMap(byName);
+    }
+}
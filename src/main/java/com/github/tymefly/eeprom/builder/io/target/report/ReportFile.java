@@ -25,6 +25,16 @@ abstract class ReportFile implements Report {
         this.fileName = fileName;
     }
 
+    /**
+     * Returns the file this report is written to
+     * @return the file this report is written to
+     */
+    @Nonnull
+    public final File getDestination() {
+        return new File(targetDirectory, fileName);
+    }
+
+
     /**
      * Generate the report specific details.
      * Each line is generated by calling {@link #report(Writer, String, Object...)}
@@ -53,7 +63,7 @@ abstract class ReportFile implements Report {
 
 
     public final void close() throws IoException {
-        File destination = new File(targetDirectory, fileName);
+        File destination = getDestination();
         LocalDateTime timeStamp = LocalDateTime.now();
 
         try (
@@ -3,6 +3,7 @@ package com.github.tymefly.eeprom.builder.io.target.report;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import javax.annotation.Nonnull;
@@ -28,6 +29,31 @@ public class Reporter implements Report {
     }
 
 
+    /**
+     * Returns each of the reports so that they can be generated independently of each other. Each report must be
+     * closed by the caller; the reports should not also be generated through this aggregator.
+     * @return each of the reports
+     */
+    @Nonnull
+    public List<Report> getReports() {
+        return Collections.unmodifiableList(reports);
+    }
+
+
+    /**
+     * Returns the files written by the reports
+     * @return the files written by the reports
+     */
+    @Nonnull
+    public List<File> getFiles() {
+        List<File> files = new ArrayList<>();
+
+        reports.forEach(r -> files.add(r.getDestination()));
+
+        return files;
+    }
+
+
     @Override
     public void unusedCode(int code) {
         reports.forEach(r -> r.unusedCode(code));
@@ -20,8 +20,7 @@ public abstract class Source {
      */
     @Nonnull
     protected String[] splitLine(@Nonnull SourceLine line, int minColumns, int maxColumns) throws SourceFileException {
-        String[] columns = line.getText()
-                .split("\\h+");
+        String[] columns = line.getColumns();
         int count = columns.length;
 
         if (count < minColumns) {
@@ -0,0 +1,69 @@
+package com.github.tymefly.eeprom.builder.project.code;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The inverse of an {@link AddressMapper}. Every address in the EEPROM is decoded back to the opCode, flag state
+ * and machine cycle that select it; address pins that are not wired to anything are ignored. The lookup tables
+ * are built once, from the {@link AddressMapper}'s inverse pin tables, so decoding an address is a simple array
+ * lookup.
+ */
+@Immutable
+class AddressDecoder {
+    private final int[] opCodes;
+    private final int[] states;
+    private final int[] cycles;
+
+
+    /**
+     * Constructor
+     * @param mapper        The mapper to invert
+     * @param addressCount  The number of addresses in the EEPROM
+     */
+    AddressDecoder(@Nonnull AddressMapper mapper, int addressCount) {
+        this.opCodes = new int[addressCount];
+        this.states = new int[addressCount];
+        this.cycles = new int[addressCount];
+
+        for (int address = 1; address < addressCount; address++) {
+            int pin = Integer.numberOfTrailingZeros(address);
+            int previous = address & (address - 1);                     // The same address without its lowest bit
+
+            opCodes[address] = opCodes[previous] | mapper.codeBit(pin);
+            states[address] = states[previous] | mapper.stateBit(pin);
+            cycles[address] = cycles[previous] | mapper.cycleBit(pin);
+        }
+    }
+
+
+    /**
+     * Returns the opCode that selects the {@code address}
+     * @param address       Address in the EEPROM
+     * @return the opCode that selects the {@code address}
+     */
+    int opCode(int address) {
+        return opCodes[address];
+    }
+
+
+    /**
+     * Returns the flag state that selects the {@code address}
+     * @param address       Address in the EEPROM
+     * @return the flag state that selects the {@code address}
+     * @see com.github.tymefly.eeprom.builder.project.input.InputPins#getFlags()
+     */
+    int state(int address) {
+        return states[address];
+    }
+
+
+    /**
+     * Returns the machine cycle that selects the {@code address}
+     * @param address       Address in the EEPROM
+     * @return the machine cycle that selects the {@code address}
+     */
+    int mCycle(int address) {
+        return cycles[address];
+    }
+}
@@ -1,90 +1,134 @@
 package com.github.tymefly.eeprom.builder.project.code;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
-import java.util.function.Function;
+import java.util.List;
 
 import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
 
 import com.github.tymefly.eeprom.builder.project.input.InputPin;
 import com.github.tymefly.eeprom.builder.project.input.InputPins;
 import com.github.tymefly.eeprom.builder.project.input.IrBit;
 import com.github.tymefly.eeprom.builder.project.input.MCycle;
-import com.github.tymefly.eeprom.builder.project.input.PinState;
 
 /**
- * Map the {@link InputPins} to an address in the EEPROM
+ * Map the {@link InputPins} to an address in the EEPROM. All the lookup tables are built when the mapper is
+ * created so calculating an address is just three array reads. This class is thread safe.
  */
+@Immutable
 class AddressMapper {
-    private final InputPins inputPins;
-    private final Map<Integer, Integer> codeCache;
-    private final Map<Integer, Integer> cycleCache;
-    private final Map<Set<Condition>, Integer> stateCache;
+    private static final int PIN_COUNT = Integer.SIZE;
+
+    private final int[] stateTable;                         // flag state -> address bits
+    private final int[] codeTable;                          // opCode -> address bits
+    private final int[] cycleTable;                         // machine cycle -> address bits
+    private final int[] pinStates;                          // address pin -> flag state bit
+    private final int[] pinCodes;                           // address pin -> opCode bit
+    private final int[] pinCycles;                          // address pin -> machine cycle bit
 
 
     AddressMapper(@Nonnull InputPins inputPins) {
-        this.inputPins = inputPins;
-        this.codeCache = new HashMap<>();
-        this.cycleCache = new HashMap<>();
-        this.stateCache = new HashMap<>();
+        List<InputPin> flags = inputPins.getFlags();
+        int[] stateBits = new int[flags.size()];
+        int[] codeBits = new int[IrBit.values().length];
+        int[] cycleBits = new int[MCycle.values().length];
+
+        this.pinStates = new int[PIN_COUNT];
+        this.pinCodes = new int[PIN_COUNT];
+        this.pinCycles = new int[PIN_COUNT];
+
+        for (int bit = 0; bit < stateBits.length; bit++) {
+            stateBits[bit] = assign(pinStates, flags.get(bit), bit);
+        }
+
+        for (int bit = 0; bit < codeBits.length; bit++) {
+            String name = IrBit.fromBit(bit).name();
+
+            codeBits[bit] = (inputPins.hasPin(name) ? assign(pinCodes, inputPins.getPin(name), bit) : 0);
+        }
+
+        for (int bit = 0; bit < cycleBits.length; bit++) {
+            String name = MCycle.fromBit(bit).name();
+
+            cycleBits[bit] = (inputPins.hasPin(name) ? assign(pinCycles, inputPins.getPin(name), bit) : 0);
+        }
+
+        this.stateTable = expand(stateBits);
+        this.codeTable = expand(codeBits);
+        this.cycleTable = expand(cycleBits);
     }
 
 
-    int calculate(@Nonnull Set<Condition> state, int code, int mCycle) {
-        int address = stateToAddress(state);
-        address |= opCodeToAddress(code);
-        address |= cycleToAddress(mCycle);
+    // Record that 'pin' is selected by 'bit' and return the address bit for the pin
+    private static int assign(@Nonnull int[] inverse, @Nonnull InputPin pin, int bit) {
+        inverse[pin.getPin()] = (1 << bit);
 
-        return address;
+        return (1 << pin.getPin());
     }
 
 
-    private int stateToAddress(@Nonnull Set<Condition> state) {
-        return stateCache.computeIfAbsent(state, k -> {
-            int address = 0;
+    // Build a table of the address bits for every value that can be made from 'bits'
+    @Nonnull
+    private static int[] expand(@Nonnull int[] bits) {
+        int[] table = new int[1 << bits.length];
+
+        for (int value = 1; value < table.length; value++) {
+            int previous = value & (value - 1);                         // The same value without its lowest bit
 
-            for (var condition : state) {
-                if (condition.getState() == PinState.ACTIVE) {
-                    InputPin pin = condition.getPin();
-                    address |= (1 << pin.getPin());
-                }
-            }
+            table[value] = table[previous] | bits[Integer.numberOfTrailingZeros(value)];
+        }
 
-            return address;
-        });
+        return table;
     }
 
 
-    private int opCodeToAddress(int code) {
-        return codeCache.computeIfAbsent(code, k -> toAddress(code, b -> IrBit.fromBit(b).name()));
+    int calculate(int state, int code, int mCycle) {
+        return stateTable[state] | codeTable[code] | cycleTable[mCycle];
     }
 
 
-    private int cycleToAddress(int mCycle) {
-        return cycleCache.computeIfAbsent(mCycle, k -> toAddress(mCycle, b -> MCycle.fromBit(b).name()));
-    }
+    /**
+     * Returns {@literal true} only if the machine cycle counter is wired to the lowest address pins, in order.
+     * If it is, then the machine cycles of an instruction are stored at consecutive addresses.
+     * @param maxCycle      The highest machine cycle that is used
+     * @return {@literal true} only if the machine cycle counter is wired to the lowest address pins
+     */
+    boolean hasSequentialCycles(int maxCycle) {
+        boolean sequential = true;
+
+        for (int mCycle = 0; sequential && (mCycle <= maxCycle); mCycle++) {
+            sequential = (cycleTable[mCycle] == mCycle);
+        }
 
+        return sequential;
+    }
 
-    private int toAddress(int value, @Nonnull Function<Integer, String> lookup) {
-        int address = 0;
-        int bit = 0;
 
-        while (value != 0) {
-            if ((value & 1) != 0) {
-                String pinName = lookup.apply(bit);
+    /**
+     * Returns the bit in the flag state that selects an address {@code pin}
+     * @param pin       An address pin
+     * @return the bit in the flag state that selects the {@code pin}, or {@literal 0} if it is not a flag
+     */
+    int stateBit(int pin) {
+        return pinStates[pin];
+    }
 
-                if (inputPins.hasPin(pinName)) {
-                    InputPin pin = inputPins.getPin(pinName);
 
-                    address |= (1 << pin.getPin());
-                }
-            }
+    /**
+     * Returns the bit in the opCode that selects an address {@code pin}
+     * @param pin       An address pin
+     * @return the bit in the opCode that selects the {@code pin}, or {@literal 0} if it is not an IR bit
+     */
+    int codeBit(int pin) {
+        return pinCodes[pin];
+    }
 
-            value >>= 1;
-            bit++;
-        }
 
-        return address;
+    /**
+     * Returns the bit in the machine cycle that selects an address {@code pin}
+     * @param pin       An address pin
+     * @return the bit in the machine cycle that selects the {@code pin}, or {@literal 0} if it is not a counter bit
+     */
+    int cycleBit(int pin) {
+        return pinCycles[pin];
     }
 }
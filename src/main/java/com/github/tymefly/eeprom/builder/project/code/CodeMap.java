@@ -1,25 +1,25 @@
 package com.github.tymefly.eeprom.builder.project.code;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.StringJoiner;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
-import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
 import com.github.tymefly.eeprom.builder.project.input.InputPin;
 import com.github.tymefly.eeprom.builder.project.input.InputPins;
-import com.github.tymefly.eeprom.builder.project.input.InputTypes;
+import com.github.tymefly.eeprom.builder.project.input.IrBit;
 import com.github.tymefly.eeprom.builder.project.input.PinState;
 import com.github.tymefly.eeprom.builder.utils.Preconditions;
-import com.github.tymefly.eeprom.builder.utils.SetUtils;
 
 /**
  * The CodeMap is used to defined the mapping from the {@link InputPins} to the {@link Instruction}
@@ -27,6 +27,11 @@ import com.github.tymefly.eeprom.builder.utils.SetUtils;
  */
 @Immutable
 class CodeMap {
+    private static final int UNUSED_ID = 0;                     // Instruction ID for unassigned opCodes
+    private static final int NOP_ID = 1;                        // Instruction ID for unassigned flag states
+                                                                // General instructions follow these
+
+
     static class Builder {
         private Map<String, Instruction> instructions;
         private Instruction nop;
@@ -69,193 +74,218 @@ class CodeMap {
             Preconditions.checkState((nop != null), "nop instruction has not been set");
             Preconditions.checkState((undefined != null), "undefined instruction has not been set");
 
-            List<Set<Condition>> allConditions = allConditions();
-            List<Map<Set<Condition>, Instruction>> codeMap = new ArrayList<>();
-            Map<Set<Condition>, Instruction> unused = createUnusedCode(allConditions);
+            int opCodeCount = (inputPins.getMaxIrPin().getBitValue() << 1);
+            List<Instruction> byId = new ArrayList<>();
+            BitSet valid = findValid(opCodeCount);
+            BitSet defined = new BitSet(opCodeCount);
+            int[] relevant = new int[opCodeCount];
+            int[] offsets = new int[opCodeCount + 1];
 
-            clearCodeMap(codeMap);
-            populateCodeMap(codeMap, allConditions);
-            fillCodeMap(codeMap, unused);
+            byId.add(UNUSED_ID, undefined);
+            byId.add(NOP_ID, nop);
+            byId.addAll(instructions.values());
 
-            return new CodeMap(codeMap, allConditions, unused);
-        }
+            checkClashes(byId);
+            findRelevantFlags(byId, relevant);
 
+            for (int code = 0; code < opCodeCount; code++) {
+                offsets[code + 1] = offsets[code] + (1 << Integer.bitCount(relevant[code]));
+            }
 
-        private void clearCodeMap(@Nonnull List<Map<Set<Condition>, Instruction>> codeMap) {
-            int irMask = inputPins.getIrMask();
-            int max = (inputPins.getMaxIrPin().getBitValue() << 1) - 1;
-            int index = -1;
+            int[] table = new int[offsets[opCodeCount]];
 
-            while (index++ != max) {
-                int code = (index & irMask);                        // The code we will use.
-                boolean isValid = (code == index);
-                HashMap<Set<Condition>, Instruction> map = (isValid ? new HashMap<>(): null);
+            populateCodeMap(byId, table, relevant, offsets, valid, defined);    // Unassigned entries remain UNUSED_ID
 
-                codeMap.add(map);
-            }
+            return new CodeMap(inputPins, byId, table, relevant, offsets, valid, defined);
         }
 
 
-        private void populateCodeMap(@Nonnull List<Map<Set<Condition>, Instruction>> codeMap,
-                                     @Nonnull Collection<Set<Condition>> allConditions) {
-            for (var instruction : instructions.values()) {
-                Collection<Set<Condition>> keys = match(allConditions, instruction);
-
-                for(var code : instruction.getOpCodes().getCodes()) {
-                    Map<Set<Condition>, Instruction> entry = codeMap.get(code);
+        /**
+         * Ensure that no two instructions can be selected by the same opCode and flag state. Each instruction is
+         * described by a single ternary pattern over the Instruction Register bits and the flags, so clashing
+         * instructions can be found without enumerating their opCodes and states. Every clash is reported.
+         * @param byId          All the instructions, indexed by ID
+         */
+        private void checkClashes(@Nonnull List<Instruction> byId) {
+            int irBits = IrBit.values().length;
+            PatternIndex index = new PatternIndex(irBits + inputPins.getFlags().size());
+            StringJoiner clashes = new StringJoiner(System.lineSeparator());
+
+            for (int id = NOP_ID + 1; id < byId.size(); id++) {
+                Instruction instruction = byId.get(id);
+                OpCodes.Code code = instruction.getOpCodes();
+                long mask = ((long) flagMask(instruction, PinState.EITHER) << irBits) | code.getMask();
+                long value = ((long) flagMask(instruction, PinState.INACTIVE) << irBits) | code.getValue();
+
+                index.add(id, mask, value);
+            }
 
-                    Preconditions.checkState((entry != null), "Attempt to process invalid opCode %d", code);
+            for (var overlap : index.findOverlaps()) {
+                long input = overlap.getInput();
 
-                    for (var condition : allConditions) {
-                        Instruction current = (keys.contains(condition) ? instruction : nop);
-                        Instruction existing = entry.get(condition);
+                clashes.add(String.format("OpCode %d clashed for instructions '%s' and '%s' in state %s",
+                                          input & ((1 << irBits) - 1),
+                                          byId.get(overlap.getFirst()).getName(),
+                                          byId.get(overlap.getSecond()).getName(),
+                                          describe(inputPins, (int) (input >>> irBits))));
+            }
 
-                        if ((existing == null) || (existing == nop)) {
-                            entry.put(condition, current);
-                        } else if (current == nop) {
-                            // Do nothing - don't overwrite a good instruction with nop
-                        } else {
-                            throw new CompilerException("OpCode %d clashed for instructions '%s' and '%s' in state %s",
-                                                        code, existing.getName(), instruction.getName(), condition);
-                        }
-                    }
-                }
+            if (clashes.length() != 0) {
+                throw new CompilerException(clashes.toString());
             }
         }
 
 
-        private void fillCodeMap(@Nonnull List<Map<Set<Condition>, Instruction>> codeMap,
-                                 @Nonnull Map<Set<Condition>, Instruction> unused) {
-
-            int index = codeMap.size();
-            while (index-- != 0) {
-                Map<Set<Condition>, Instruction> entry = codeMap.get(index);
+        // For each opCode, find the flags that are tested by at least one of its instructions
+        private void findRelevantFlags(@Nonnull List<Instruction> byId, @Nonnull int[] relevant) {
+            for (int id = NOP_ID + 1; id < byId.size(); id++) {
+                Instruction instruction = byId.get(id);
+                int mask = flagMask(instruction, PinState.EITHER);
 
-                if ((entry != null) && entry.isEmpty()) {
-                    codeMap.set(index, unused);
+                for (var code : instruction.getOpCodes().getCodes()) {
+                    relevant[code] |= mask;
                 }
             }
         }
 
 
         @Nonnull
-        private Map<Set<Condition>, Instruction> createUnusedCode(@Nonnull Collection<Set<Condition>> allConditions) {
-            Map<Set<Condition>, Instruction> keys = new HashMap<>();
+        private BitSet findValid(int opCodeCount) {
+            int irMask = inputPins.getIrMask();
+            BitSet valid = new BitSet(opCodeCount);
 
-            for (var condition : allConditions) {
-                keys.put(condition, undefined);
+            for (int index = 0; index < opCodeCount; index++) {
+                int code = (index & irMask);                        // The code we will use.
+
+                valid.set(index, (code == index));
             }
 
-            keys = Collections.unmodifiableMap(keys);
-            return keys;
+            return valid;
         }
 
 
-        @Nonnull
-        private Collection<Set<Condition>> match(@Nonnull Collection<Set<Condition>> allConditions,
-                                                 @Nonnull Instruction instruction) {
-            Set<Set<Condition>> result = new HashSet<>();
-            Collection<Condition> flags = instruction.getFlags().values();
-
-            for (var test : allConditions) {
-                Set<Condition> key = match(test, flags);
-
-                if (key != null) {
-                    result.add(key);
-                }
-            }
-
-            return result;
-        }
+        private void populateCodeMap(@Nonnull List<Instruction> byId,
+                                     @Nonnull int[] table,
+                                     @Nonnull int[] relevant,
+                                     @Nonnull int[] offsets,
+                                     @Nonnull BitSet valid,
+                                     @Nonnull BitSet defined) {
+            for (int id = NOP_ID + 1; id < byId.size(); id++) {
+                Instruction instruction = byId.get(id);
+                int mask = flagMask(instruction, PinState.EITHER);
+                int value = flagMask(instruction, PinState.INACTIVE);
 
+                for(var code : instruction.getOpCodes().getCodes()) {
+                    Preconditions.checkState(valid.get(code), "Attempt to process invalid opCode %d", code);
 
-        @Nullable
-        private Set<Condition> match(@Nonnull Set<Condition> test, @Nonnull Collection<Condition> flags) {
-            boolean matched = true;
+                    int base = offsets[code];
+                    int flags = relevant[code];
+                    int state = 0;
+                    int index = 0;
 
-            for (var flag : flags) {
-                InputPin pin = flag.getPin();
-                var condition = Condition.of(pin, PinState.ACTIVE);
-                boolean ifSet = (flag.getState() != PinState.INACTIVE);
-                boolean ifClear = (flag.getState() != PinState.ACTIVE);
-                boolean isSet = test.contains(condition);
+                    if (!defined.get(code)) {
+                        defined.set(code);
+                        Arrays.fill(table, base, offsets[code + 1], NOP_ID);
+                    }
 
-                matched = ((isSet && ifSet) || (!isSet && ifClear));
+                    do {
+                        if ((state & mask) == value) {                  // Instructions can not clash
+                            table[base + index] = id;
+                        }
 
-                if (!matched) {
-                    break;
+                        state = (state - flags) & flags;                // Next combination of the relevant flags
+                        index++;
+                    } while (state != 0);
                 }
             }
-
-            return (matched ? test : null);
         }
 
 
         /**
-         * Returns a sorted, immutable, collection of all possible conditions
-         * @return a sorted, immutable, collection of all possible conditions
+         * Returns a bit mask of the flags the {@code instruction} requires, excluding those in the {@code ignore}
+         * state. Excluding {@link PinState#EITHER} returns the flags that are tested, while excluding
+         * {@link PinState#INACTIVE} returns the flags that must be set.
+         * @param instruction   The instruction to examine
+         * @param ignore        The flag state to exclude from the mask
+         * @return a bit mask of the flags the {@code instruction} requires
+         * @see InputPins#getFlags()
          */
-        @Nonnull
-        private List<Set<Condition>> allConditions() {
-            Set<Set<InputPin>> flagCombinations = SetUtils.powerSet(inputPins.getPins(InputTypes.FLAG));
-            List<Set<Condition>> result = new ArrayList<>();
-
-            for (var combination : flagCombinations) {
-                result.add(Collections.unmodifiableSet(toCondition(combination)));
-            }
+        private int flagMask(@Nonnull Instruction instruction, @Nonnull PinState ignore) {
+            List<InputPin> flags = inputPins.getFlags();
+            int mask = 0;
 
-            result.sort((l, r) -> {
-                int left = l.stream()
-                        .mapToInt(e -> (e.getState() == PinState.ACTIVE ? 2 << e.getPin().getPin() : 0))
-                        .sum();
-                int right = r.stream()
-                        .mapToInt(e -> (e.getState() == PinState.ACTIVE ? 2 << e.getPin().getPin() : 0))
-                        .sum();
+            for (var condition : instruction.getFlags().values()) {
+                PinState state = condition.getState();
 
-                return left - right;
-            });
-
-            return Collections.unmodifiableList(result);
-        }
-
-
-        @Nonnull
-        private Set<Condition> toCondition(@Nonnull Set<InputPin> test) {
-            Set<Condition> result = new HashSet<>();
-
-            for (var x : inputPins.getPins(InputTypes.FLAG)) {
-                if (test.contains(x)) {
-                    result.add(Condition.of(x, PinState.ACTIVE));
-                } else {
-                    result.add(Condition.of(x, PinState.INACTIVE));
+                if ((state != ignore) && (state != PinState.EITHER)) {
+                    mask |= (1 << flags.indexOf(condition.getPin()));
                 }
             }
 
-            return result;
+            return mask;
         }
     }
 
 
     /*
-     * Code map is indexed by opCode. The values in the list are:
-     *   - null => The opCode is invalid because the IR Register can't map it
-     *   - 'unused' => The opCode doesn't have an assigned instruction (so we've made one up)
-     *   - Map of all possible flag settings to the Instruction code that need to be executed
+     * The code map is a table of instruction IDs. Each opCode has a slice of the table, starting at 'offsets[opCode]',
+     * with one entry for each combination of the flags in 'relevant[opCode]'; these are the only flags tested by the
+     * opCode's instructions, so the other flags can take any value. The ID is an index into 'byId'. The opCode is
+     * described by two bit sets:
+     *   - valid => The opCode can be mapped by the IR Register. Invalid codes should never be read from the table
+     *   - defined => The opCode has at least one assigned instruction. Valid codes that are not defined are mapped to
+     *          the 'unused' instruction (so we've made one up)
+     */
+
+    private final List<Instruction> byId;
+    private final int[] table;
+    private final int[] relevant;
+    private final int[] offsets;
+    private final BitSet valid;
+    private final BitSet defined;
+    private final int stateCount;
+    private final int maxOpCode;
+    private final Collection<Integer> allValid;
+
+
+    private CodeMap(@Nonnull InputPins inputPins,
+                    @Nonnull List<Instruction> byId,
+                    @Nonnull int[] table,
+                    @Nonnull int[] relevant,
+                    @Nonnull int[] offsets,
+                    @Nonnull BitSet valid,
+                    @Nonnull BitSet defined) {
+        this.byId = Collections.unmodifiableList(byId);
+        this.table = table;
+        this.relevant = relevant;
+        this.offsets = offsets;
+        this.valid = valid;
+        this.defined = defined;
+        this.stateCount = inputPins.getFlagStateCount();
+        this.maxOpCode = relevant.length - 1;
+        this.allValid = Collections.unmodifiableList(valid.stream().boxed().collect(Collectors.toList()));
+    }
+
+
+    /**
+     * Returns a human readable description of a flag {@code state}
+     * @param inputPins     A description of all the address pins
+     * @param state         A flag state
+     * @return a human readable description of a flag {@code state}
+     * @see InputPins#getFlags()
      */
+    @Nonnull
+    static String describe(@Nonnull InputPins inputPins, int state) {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        List<InputPin> flags = inputPins.getFlags();
 
-    private final List<Map<Set<Condition>, Instruction>> codeMap;
-    private final List<Set<Condition>> allConditions;
-    private final Map<Set<Condition>, Instruction> unused;
-    private final List<Integer> allValid;
+        for (int index = 0; index < flags.size(); index++) {
+            PinState pinState = (((state >> index) & 1) != 0 ? PinState.ACTIVE : PinState.INACTIVE);
 
+            joiner.add(flags.get(index).getName() + "=" + pinState.getText());
+        }
 
-    private CodeMap(@Nonnull List<Map<Set<Condition>, Instruction>> codeMap,
-                    @Nonnull List<Set<Condition>> allConditions,
-                    @Nonnull Map<Set<Condition>, Instruction> unused) {
-        this.codeMap = Collections.unmodifiableList(codeMap);
-        this.allConditions = allConditions;
-        this.unused = unused;
-        this.allValid = new ArrayList<>();
+        return joiner.toString();
     }
 
 
@@ -264,18 +294,18 @@ class CodeMap {
      * @return the largest valid OpCode
      */
     int maxOpCode() {
-        return codeMap.size() - 1;
+        return maxOpCode;
     }
 
 
     /**
-     * Returns all possible valid set of Conditions that are supported.
-     * These are sorted according to the binary values of their {@link InputPin} bit values
-     * @return all possible valid set of Conditions that are supported
+     * Returns the number of flag states that are supported. Valid states are in the range {@literal 0} to
+     * {@code getStateCount() - 1}
+     * @return the number of flag states that are supported
+     * @see InputPins#getFlags()
      */
-    @Nonnull
-    public List<Set<Condition>> getAllConditions() {
-        return allConditions;
+    int getStateCount() {
+        return stateCount;
     }
 
 
@@ -285,15 +315,7 @@ class CodeMap {
      * @return {@literal true} only if {@code opCode} is valid and one or more {@link Instruction}(s) have assigned
      */
     boolean isDefined(int opCode) {
-        boolean isDefined = (opCode <= maxOpCode());
-
-        if (isDefined) {
-            Map<Set<Condition>, Instruction> entry = codeMap.get(opCode);
-
-            isDefined = ((entry != null) && (entry != unused));
-        }
-
-        return isDefined;
+        return defined.get(opCode);
     }
 
 
@@ -303,15 +325,7 @@ class CodeMap {
      * @return {@literal true} only if {@code opCode} is valid but no {@link Instruction}(s) have assigned
      */
     boolean isUnused(int opCode) {
-        boolean isUnused = (opCode <= maxOpCode());
-
-        if (isUnused) {
-            Map<Set<Condition>, Instruction> entry = codeMap.get(opCode);
-
-            isUnused = ((entry != null) && (entry == unused));
-        }
-
-        return isUnused;
+        return valid.get(opCode) && !defined.get(opCode);
     }
 
 
@@ -324,10 +338,7 @@ class CodeMap {
      * @see #isDefined
      */
     boolean isValid(int opCode) {
-        boolean isValid = (opCode <= maxOpCode());
-        isValid = isValid && (codeMap.get(opCode) != null);
-
-        return isValid;
+        return valid.get(opCode);
     }
 
 
@@ -338,17 +349,7 @@ class CodeMap {
      */
     @Nonnull
     Collection<Integer> allValid() {
-        if (allValid.isEmpty()) {
-            int maxOpCode = maxOpCode();
-
-            for (var opCode = 0; opCode <= maxOpCode; opCode++) {
-                if (isValid(opCode)) {
-                    allValid.add(opCode);
-                }
-            }
-        }
-
-        return Collections.unmodifiableList(allValid);
+        return allValid;
     }
 
 
@@ -366,34 +367,81 @@ class CodeMap {
         if (!isDefined(opCode)) {
             names = Collections.emptySet();
         } else {
-            names = codeMap.get(opCode)
-                   .values()
-                   .stream()
-                   .filter(Instruction::isGeneralInstruction)
-                   .map(Instruction::getName)
-                   .collect(Collectors.toSet());
+            Set<String> found = new HashSet<>();
+
+            for (int index = offsets[opCode]; index < offsets[opCode + 1]; index++) {
+                Instruction instruction = byId.get(table[index]);
+
+                if (instruction.isGeneralInstruction()) {
+                    found.add(instruction.getName());
+                }
+            }
+
+            names = found;
         }
 
         return names;
     }
 
 
-
     /**
      * Returns the Instruction for a given {@code opCode} in a given {@code state}
      * @param opCode        Valid OpCode
-     * @param state         One of the values returned by {@link #getAllConditions()}
+     * @param state         A flag state in the range {@literal 0} to {@code getStateCount() - 1}
      * @return              The Instruction to be executed
      * @see #isValid(int)
-     * @see #getAllConditions()
+     * @see #getStateCount()
      */
     @Nonnull
-    Instruction getInstruction(int opCode, @Nonnull Set<Condition> state) {
-        boolean isValid = (opCode <= maxOpCode());
-        Map<Set<Condition>, Instruction> entry = (isValid ? codeMap.get(opCode) : null);
+    Instruction getInstruction(int opCode, int state) {
+        return byId.get(getInstructionId(opCode, state));
+    }
+
+
+    /**
+     * Returns the ID of the Instruction for a given {@code opCode} in a given {@code state}
+     * @param opCode        Valid OpCode
+     * @param state         A flag state in the range {@literal 0} to {@code getStateCount() - 1}
+     * @return              The ID of the Instruction to be executed
+     * @see #getInstructions()
+     */
+    int getInstructionId(int opCode, int state) {
+        Preconditions.checkArgument(valid.get(opCode), "Invalid opCode %d", opCode);
+
+        int index = 0;
+        int bit = 1;
+
+        for (int flags = relevant[opCode]; flags != 0; flags &= (flags - 1), bit <<= 1) {
+            if ((state & flags & -flags) != 0) {                    // Gather the relevant flags into the index
+                index |= bit;
+            }
+        }
+
+        return table[offsets[opCode] + index];
+    }
+
 
-        Preconditions.checkArgument((entry != null), "Invalid opCode %d", opCode);
+    /**
+     * Returns a bit mask of the flags that are tested by at least one of the instructions for the {@code opCode}.
+     * The other flags do not change which instruction is executed.
+     * @param opCode        Valid OpCode
+     * @return a bit mask of the flags that are tested by the instructions for the {@code opCode}
+     * @see InputPins#getFlags()
+     */
+    int getRelevantFlags(int opCode) {
+        Preconditions.checkArgument(valid.get(opCode), "Invalid opCode %d", opCode);
 
-        return entry.get(state);
+        return relevant[opCode];
+    }
+
+
+    /**
+     * Returns an immutable list of every Instruction in this map, indexed by Instruction ID
+     * @return an immutable list of every Instruction in this map, indexed by Instruction ID
+     * @see #getInstructionId(int, int)
+     */
+    @Nonnull
+    List<Instruction> getInstructions() {
+        return byId;
     }
 }
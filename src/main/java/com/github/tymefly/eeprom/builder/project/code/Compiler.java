@@ -1,19 +1,24 @@
 package com.github.tymefly.eeprom.builder.project.code;
 
 import java.io.File;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.regex.Pattern;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.github.tymefly.eeprom.builder.exception.SourceFileException;
+import com.github.tymefly.eeprom.builder.io.source.DirectorySource;
 import com.github.tymefly.eeprom.builder.io.source.FileLoader;
 import com.github.tymefly.eeprom.builder.io.source.ProjectFile;
+import com.github.tymefly.eeprom.builder.io.source.ProjectSource;
 import com.github.tymefly.eeprom.builder.io.source.SourceFile;
 import com.github.tymefly.eeprom.builder.io.source.SourceGroup;
 import com.github.tymefly.eeprom.builder.io.source.SourceLine;
@@ -26,7 +31,10 @@ import com.github.tymefly.eeprom.builder.project.input.IrBit;
 import com.github.tymefly.eeprom.builder.project.input.PinState;
 import com.github.tymefly.eeprom.builder.project.output.OutputPin;
 import com.github.tymefly.eeprom.builder.project.output.OutputPins;
+import com.github.tymefly.eeprom.builder.utils.Fingerprint;
 import com.github.tymefly.eeprom.builder.utils.Preconditions;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  * Compile the code description into Microcode.
@@ -36,9 +44,11 @@ public class Compiler extends Source {
      * A builder class for the Compiler
      */
     public static class Builder {
-        private final File projectDirectory;
+        private final ProjectSource source;
         private InputPins inputPins;
         private OutputPins outputPins;
+        private int threads = 1;
+        private Compiler previous;
 
 
         /**
@@ -47,7 +57,17 @@ public class Compiler extends Source {
          */
         @Nonnull
         public Builder(@Nonnull File projectDirectory) {
-            this.projectDirectory = projectDirectory;
+            this(new DirectorySource(projectDirectory));
+        }
+
+
+        /**
+         * Create a new Compiler builder object.
+         * @param source            The source of the project files
+         */
+        @Nonnull
+        public Builder(@Nonnull ProjectSource source) {
+            this.source = source;
         }
 
 
@@ -68,6 +88,37 @@ public class Compiler extends Source {
         }
 
 
+        /**
+         * Set the number of threads used to build the EEPROM images. By default the images are built on the
+         * calling thread
+         * @param threads       Number of threads. This must be at least {@literal 1}
+         * @return              A fluent interface
+         */
+        @Nonnull
+        public Builder withThreads(int threads) {
+            Preconditions.checkArgument((threads >= 1), "Invalid thread count %d", threads);
+
+            this.threads = threads;
+
+            return this;
+        }
+
+
+        /**
+         * Enable incremental compilation. If only general instructions have changed since the {@code previous}
+         * build then the EEPROM images are patched rather than rebuilt.
+         * @param previous      The compiler for a previous successful build of the same project. If this is
+         *                      {@literal null} then a full build is performed
+         * @return              A fluent interface
+         */
+        @Nonnull
+        public Builder withPrevious(@Nullable Compiler previous) {
+            this.previous = previous;
+
+            return this;
+        }
+
+
         /**
          * Returns a new instance of the Microcode compiler as configured by this builder
          * @return a new instance of the Microcode compiler
@@ -77,34 +128,49 @@ public class Compiler extends Source {
             var compiler = new Compiler(this);
             compiler.compile();
 
+            if (previous != null) {
+                compiler.inherit(previous);
+            }
+
             return compiler;
         }
     }
 
+    private static final Logger LOGGER = LogManager.getFormatterLogger();
     private static final Pattern SKIP_CYCLE = Pattern.compile("\\s*-\\s*");
-    private final File projectDirectory;
+    private final ProjectSource source;
     private final OutputPins outputPins;
     private final InputPins inputPins;
     private final OpCodes opCodes;
+    private final int threads;
+    private final List<SourceGroup> instructions;
+    private Map<String, String> fingerprints;               // Instruction name -> fingerprint of the source
+    private String commonFingerprint;                       // Everything that is shared by all the instructions
+    private SourceGroup fetchGroup;
+    private SourceGroup finalGroup;
+    private SourceGroup unusedGroup;
     private MicroCode result;
 
 
     private Compiler(@Nonnull Builder builder) {
-        projectDirectory = Preconditions.checkNotNull(builder.projectDirectory, "Project location has not been set");
+        source = Preconditions.checkNotNull(builder.source, "Project location has not been set");
         inputPins = Preconditions.checkNotNull(builder.inputPins, "Input pins have not been set");
         outputPins = Preconditions.checkNotNull(builder.outputPins, "Output pins have not been set");
+        threads = builder.threads;
+        instructions = new ArrayList<>();
 
         opCodes = new OpCodes(inputPins.getIrMask());
     }
 
 
     private void compile() {
-        MicroCode.Builder builder = new MicroCode.Builder(inputPins, outputPins);
-        SourceFile description = new FileLoader(projectDirectory, ProjectFile.CODE).read();
+        MicroCode.Builder builder = new MicroCode.Builder(inputPins, outputPins, threads);
+        SourceFile description = new FileLoader(source, ProjectFile.CODE).read();
         List<SourceGroup> groups = new LinkedList<>(description.getGroups());
-        SourceGroup fetchGroup = extractGroup(description, groups, InstructionGroup.FETCH);
-        SourceGroup finalGroup = extractGroup(description, groups, InstructionGroup.FINAL);
-        SourceGroup unusedGroup = extractGroup(description, groups, InstructionGroup.UNUSED);
+
+        fetchGroup = extractGroup(description, groups, InstructionGroup.FETCH);
+        finalGroup = extractGroup(description, groups, InstructionGroup.FINAL);
+        unusedGroup = extractGroup(description, groups, InstructionGroup.UNUSED);
 
         parseGroup(builder, builder::startFetch, fetchGroup, true);
         parseGroup(builder, builder::startFinal, finalGroup, true);
@@ -112,12 +178,54 @@ public class Compiler extends Source {
 
         for (var instruction : groups) {
             parseGroup(builder, () -> builder.startInstruction(instruction.getName()), instruction, false);
+            instructions.add(instruction);
         }
 
         result = builder.build();
     }
 
 
+    // The fingerprints are only needed by incremental builds, so they are calculated when they are first used; this
+    // includes the fingerprints of the pins, which are supplied lazily by their factories. This may be after a later
+    // build has started, so the previous compiler may be used by another thread.
+    private synchronized void calculateFingerprints() {
+        if (fingerprints == null) {
+            fingerprints = new HashMap<>();
+
+            for (var instruction : instructions) {
+                fingerprints.put(instruction.getName(), instruction.getFingerprint());
+            }
+
+            commonFingerprint = new Fingerprint()
+                .add(inputPins.getFingerprint())
+                .add(outputPins.getFingerprint())
+                .add(fetchGroup == null ? "" : fetchGroup.getFingerprint())
+                .add(finalGroup == null ? "" : finalGroup.getFingerprint())
+                .add(unusedGroup == null ? "" : unusedGroup.getFingerprint())
+                .build();
+        }
+    }
+
+
+    private void inherit(@Nonnull Compiler previous) {
+        calculateFingerprints();
+        previous.calculateFingerprints();
+
+        if (!commonFingerprint.equals(previous.commonFingerprint)) {
+            LOGGER.info("Pins or common instructions have changed. Full rebuild required");
+        } else {
+            Set<String> changed = new HashSet<>(fingerprints.keySet());
+
+            changed.addAll(previous.fingerprints.keySet());
+            changed.removeIf(name -> Objects.equals(fingerprints.get(name), previous.fingerprints.get(name)));
+
+            LOGGER.info("Changed instructions: %s", changed);
+
+            result.inherit(previous.result, changed);
+        }
+    }
+
+
     @Nullable
     private SourceGroup extractGroup(@Nonnull SourceFile description,
                                      @Nonnull List<SourceGroup> groups,
@@ -231,15 +339,15 @@ public class Compiler extends Source {
 
 
     private void parseMCycle(@Nonnull MicroCode.Builder builder, @Nonnull SourceLine line, String[] columns) {
-        Set<OutputPin> outputPins;
+        long controlWord;
 
         if (SKIP_CYCLE.matcher(line.getText()).matches()) {
-            outputPins = Collections.emptySet();
+            controlWord = 0;
         } else {
-            outputPins = parseOutputs(line, columns, 1);
+            controlWord = parseOutputs(line, columns, 1);
         }
 
-        boolean done = builder.setMCycle(outputPins);
+        boolean done = builder.setMCycle(controlWord);
 
         if (!done) {
             throw new SourceFileException(line, "Too many %s", InputTypes.M_CYCLE.name());
@@ -248,9 +356,9 @@ public class Compiler extends Source {
 
 
 
-    @Nonnull
-    private Set<OutputPin> parseOutputs(@Nonnull SourceLine line, @Nonnull String[] names, int first) {
-        Set<OutputPin> outputs = new TreeSet<>();       // TreeSet ensures elements are logged consistently
+    // Returns the control word for the named output pins
+    private long parseOutputs(@Nonnull SourceLine line, @Nonnull String[] names, int first) {
+        long outputs = 0;
         int index = names.length;
 
         while (index-- != first) {
@@ -261,17 +369,37 @@ public class Compiler extends Source {
                 throw new SourceFileException(line, "Unknown output pin '%s'", name);
             }
 
-            boolean undefined = outputs.add(pin);
-
-            if (!undefined) {
+            if ((outputs & pin.getControlBit()) != 0) {
                 throw new SourceFileException(line, "Duplicate definition for output pin '%s'", name);
             }
+
+            outputs |= pin.getControlBit();
         }
 
         return outputs;
     }
 
 
+    /**
+     * Returns the input (address) pins the Microcode was compiled for
+     * @return the input (address) pins the Microcode was compiled for
+     */
+    @Nonnull
+    public InputPins getInputPins() {
+        return inputPins;
+    }
+
+
+    /**
+     * Returns the output (data) pins the Microcode was compiled for
+     * @return the output (data) pins the Microcode was compiled for
+     */
+    @Nonnull
+    public OutputPins getOutputPins() {
+        return outputPins;
+    }
+
+
     /**
      * Returns a model for the compiled Microcode
      * @return a model for the compiled Microcode
@@ -1,8 +1,5 @@
 package com.github.tymefly.eeprom.builder.project.code;
 
-import java.util.EnumMap;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
 
 import javax.annotation.Nonnull;
@@ -13,12 +10,10 @@ import com.github.tymefly.eeprom.builder.project.input.PinState;
 
 
 /**
- * Defines a possible condition
+ * Defines a possible condition. Conditions are compared by value, so they are not shared between projects.
  */
 @Immutable
 class Condition {
-    private static final Map<InputPin, Map<PinState, Condition>> CACHE = new HashMap<>();
-
     private final InputPin pin;
     private final PinState state;
 
@@ -30,10 +25,7 @@ class Condition {
 
     @Nonnull
     static Condition of(@Nonnull InputPin pin, @Nonnull PinState state) {
-        Map<PinState, Condition> conditions = CACHE.computeIfAbsent(pin, x -> new EnumMap<>(PinState.class));
-        Condition condition = conditions.computeIfAbsent(state, x -> new Condition(pin, state));
-
-        return condition;
+        return new Condition(pin, state);
     }
 
 
@@ -1,38 +1,38 @@
 package com.github.tymefly.eeprom.builder.project.code;
 
-import java.util.Collection;
-import java.util.Set;
-
 import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
 
 import com.github.tymefly.eeprom.builder.project.output.OutputPin;
 import com.github.tymefly.eeprom.builder.project.output.OutputPins;
 import com.github.tymefly.eeprom.builder.project.output.Rom;
+import com.github.tymefly.eeprom.builder.utils.SystemLimits;
 
 
 /**
- * Map the {@link OutputPins} to a value in the EEPROM
+ * Map the {@link OutputPins} to a value in the EEPROM. The state of the output pins is described by a control word;
+ * see {@link OutputPin#getControlBit()}. This class is thread safe.
  */
+@Immutable
 class DataMapper {
-    private final OutputPins outputPins;
-
-    DataMapper(@Nonnull OutputPins outputPins) {
-        this.outputPins = outputPins;
-    }
-
+    private final int[] activeLow;                              // Indexed by Rom ordinal
 
-    int calculate(@Nonnull Rom rom, @Nonnull Set<OutputPin> pins) {
-        Collection<OutputPin> allPins = outputPins.getPins(rom);
-        int data = 0;
 
-        for (var pin : allPins) {
-            boolean enable = pins.contains(pin) ^ pin.isActiveLow();
+    DataMapper(@Nonnull OutputPins outputPins) {
+        this.activeLow = new int[Rom.values().length];
 
-            if (enable) {
-                data |= (1 << pin.getPin());
+        for (var pin : outputPins.getPins()) {
+            if (pin.isActiveLow()) {
+                activeLow[pin.getRom().ordinal()] |= (1 << pin.getPin());
             }
         }
+    }
+
+
+    int calculate(@Nonnull Rom rom, long controlWord) {
+        int shift = (rom.getRomNumber() - 1) * SystemLimits.BITS_IN_BYTE;
+        int data = (int) (controlWord >>> shift) & SystemLimits.BYTE_MASK;
 
-        return data;
+        return data ^ activeLow[rom.ordinal()];
     }
 }
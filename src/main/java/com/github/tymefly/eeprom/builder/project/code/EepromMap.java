@@ -1,9 +1,9 @@
 package com.github.tymefly.eeprom.builder.project.code;
 
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.EnumMap;
-import java.util.List;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -23,9 +23,11 @@ public class EepromMap {
         private final Builder parent;
         private final boolean buildAnnotations;
 
-        private Byte inactive;
-        private Byte[] content;
-        private String[] annotations;
+        private boolean hasDefault;
+        private byte inactive;
+        private byte[] content;
+        private BitSet defined;
+        private int[] annotations;
 
 
         private Eeprom(@Nonnull Rom rom, @Nonnull Builder parent, boolean buildAnnotations) {
@@ -39,8 +41,32 @@ public class EepromMap {
         Eeprom setMaxAddress(int romSize) {
             Preconditions.checkState((content == null), "Rom %s size has already been set", rom);
 
-            content = new Byte[romSize];
-            annotations = (buildAnnotations ? new String[romSize] : null);
+            content = new byte[romSize];
+            defined = new BitSet(romSize);
+            annotations = (buildAnnotations ? newAnnotations(romSize) : null);
+
+            return this;
+        }
+
+
+        /**
+         * Start this image as a copy of the same ROM in the {@code previous} map.
+         * This is an alternative to {@link #setMaxAddress(int)}
+         * @param previous      A map that was built with the same ROMs
+         * @return              A fluent interface
+         * @see #clear(int)
+         */
+        @Nonnull
+        Eeprom copyOf(@Nonnull EepromMap previous) {
+            Preconditions.checkState((content == null), "Rom %s size has already been set", rom);
+
+            byte[] image = previous.eeproms.get(rom);
+
+            Preconditions.checkArgument((image != null), "Rom %s is not in the previous map", rom);
+
+            content = image.clone();
+            defined = (BitSet) previous.defined.clone();
+            annotations = (buildAnnotations ? Arrays.copyOf(previous.annotations, image.length) : null);
 
             return this;
         }
@@ -48,48 +74,154 @@ public class EepromMap {
 
         @Nonnull
         Eeprom setDefault(int inactive) {
-            Preconditions.checkState((this.inactive == null), "Rom %s Inactive State has already been set", rom);
+            Preconditions.checkState(!hasDefault, "Rom %s Inactive State has already been set", rom);
 
             this.inactive = (byte) (inactive & SystemLimits.BYTE_MASK);
+            this.hasDefault = true;
 
             return this;
         }
 
 
         @Nonnull
-        Eeprom set(int address, int data, int opCode, int cycle, @Nonnull String description) {
+        Eeprom set(int address, int data, int opCode, int cycle) {
             Preconditions.checkState((content != null), "Rom %s size has not been set", rom);
-            Preconditions.checkArgument((address < content.length), "Address 0x%04x is out of range", address);
-            Preconditions.checkArgument((address >= 0), "Address 0x%04x is out of range", address);
-            Preconditions.checkArgument((content[address] == null), "Address 0x%04x has already been defined", address);
+            Preconditions.checkArgument(((address >= 0) && (address < content.length)),
+                                        "Address 0x%04x is out of range", address);
+            Preconditions.checkArgument(!defined.get(address), "Address 0x%04x has already been defined", address);
 
             if (buildAnnotations) {
-                String annotation =
-                        String.format("opCode 0x%02x (%03d), cycle %02d%s%s",
-                                      opCode, opCode, cycle, (description.isEmpty() ? "" : ": "), description);
-
-                annotations[address] = annotation;
+                annotations[address] = (opCode << CYCLE_BITS) | cycle;
             }
 
             content[address] = (byte) (data & SystemLimits.BYTE_MASK);
+            defined.set(address);
 
             return this;
         }
 
 
+        /**
+         * Set a run of consecutive addresses, one for each machine cycle of an instruction
+         * @param address       Address of the first machine cycle
+         * @param data          The data for each machine cycle
+         * @param opCode        The opCode of the instruction
+         * @return              A fluent interface
+         */
         @Nonnull
-        Builder apply() {
-            int address = -1;
+        Eeprom set(int address, @Nonnull byte[] data, int opCode) {
+            Preconditions.checkState((content != null), "Rom %s size has not been set", rom);
+
+            int end = address + data.length;
 
-            while (++address < content.length) {
-                if (content[address] == null) {
-                    content[address] = inactive;
+            Preconditions.checkArgument(((address >= 0) && (end <= content.length)),
+                                        "Address range 0x%04x + %d is out of range", address, data.length);
+
+            int clash = defined.nextSetBit(address);
+
+            Preconditions.checkArgument(((clash == -1) || (clash >= end)),
+                                        "Address 0x%04x has already been defined", clash);
+
+            if (buildAnnotations) {
+                for (int cycle = 0; cycle < data.length; cycle++) {
+                    annotations[address + cycle] = (opCode << CYCLE_BITS) | cycle;
                 }
             }
 
-            Builder builder = parent.apply(rom, content, annotations);
+            System.arraycopy(data, 0, content, address, data.length);
+            defined.set(address, end);
+
+            return this;
+        }
+
+
+        /**
+         * Undefine an address so that it can be set again. Addresses that are not set again will hold the
+         * inactive state of the ROM
+         * @param address       Address in the image
+         * @return              A fluent interface
+         */
+        @Nonnull
+        Eeprom clear(int address) {
+            Preconditions.checkState((content != null), "Rom %s size has not been set", rom);
+
+            defined.clear(address);
+
+            if (buildAnnotations) {
+                annotations[address] = NO_ANNOTATION;
+            }
+
+            return this;
+        }
+
+
+        /**
+         * Returns a slice of this image that can be populated independently of it, possibly on another thread.
+         * The slice writes straight into the content of this image, so nothing is copied, but it records the
+         * addresses it defines separately. The slices of an image must define disjoint sets of addresses, and
+         * those addresses must be merged back into this image once the slice has been populated.
+         * @return a slice of this image
+         * @see #merge(Eeprom)
+         */
+        @Nonnull
+        Eeprom slice() {
+            Preconditions.checkState((content != null), "Rom %s size has not been set", rom);
+
+            Eeprom slice = new Eeprom(rom, parent, buildAnnotations);
+
+            slice.content = content;
+            slice.defined = new BitSet();
+            slice.annotations = annotations;
+            slice.inactive = inactive;
+            slice.hasDefault = hasDefault;
+
+            return slice;
+        }
+
+
+        /**
+         * Mark all the addresses that have been defined in the {@code slice} as defined in this image. The data
+         * has already been written by the slice
+         * @param slice         A slice of this image
+         * @return              A fluent interface
+         * @see #slice()
+         */
+        @Nonnull
+        Eeprom merge(@Nonnull Eeprom slice) {
+            Preconditions.checkArgument(((slice.rom == rom) && (slice.content == content)),
+                                        "Rom %s is not a slice of Rom %s", slice.rom, rom);
+
+            if (defined.intersects(slice.defined)) {
+                BitSet clash = (BitSet) defined.clone();
+
+                clash.and(slice.defined);
+
+                throw new IllegalArgumentException(
+                    String.format("Address 0x%04x has already been defined", clash.nextSetBit(0)));
+            }
+
+            defined.or(slice.defined);
+
+            return this;
+        }
+
+
+        @Nonnull
+        Builder apply() {
+            int address = defined.nextClearBit(0);
+
+            while (address < content.length) {
+                int end = defined.nextSetBit(address);
+
+                end = (end == -1 ? content.length : end);
+                Arrays.fill(content, address, end, inactive);
+                address = defined.nextClearBit(end);
+            }
+
+            Builder builder = parent.apply(rom, content, defined, annotations);
 
             content = null;
+            defined = null;
             annotations = null;
 
             return builder;
@@ -98,29 +230,57 @@ public class EepromMap {
 
 
     static class Builder {
-        private final EnumMap<Rom, List<Byte>> eeproms = new EnumMap<>(Rom.class);
-        private List<String> annotations = new ArrayList<>();
+        private final EnumMap<Rom, byte[]> eeproms = new EnumMap<>(Rom.class);
+        private final String[] descriptions;
+        private int[] annotations = new int[0];
+        private BitSet defined = new BitSet();
 
         private int eepromSize = -1;
+        private boolean annotated = false;
 
 
+        /**
+         * Constructor
+         * @param descriptions  The description of each opCode, indexed by opCode. These are shared by every
+         *                      address that the opCode is mapped to
+         */
+        Builder(@Nonnull String[] descriptions) {
+            this.descriptions = descriptions;
+        }
+
+
+        /**
+         * Returns a new image for the {@code rom}. Only the first image requested from this builder is annotated
+         * @param rom           The ROM to build
+         * @return a new image for the {@code rom}
+         */
         @Nonnull
         Eeprom eeprom(@Nonnull Rom rom) {
-            return new Eeprom(rom, this, eeproms.isEmpty());
+            Eeprom eeprom = new Eeprom(rom, this, !annotated);
+
+            annotated = true;
+
+            return eeprom;
         }
 
 
-        private Builder apply(@Nonnull Rom rom, @Nonnull Byte[] content, @Nullable String[] annotations) {
+        private Builder apply(@Nonnull Rom rom,
+                              @Nonnull byte[] content,
+                              @Nonnull BitSet defined,
+                              @Nullable int[] annotations) {
             Preconditions.checkState(!eeproms.containsKey(rom), "Rom %s in already defined", rom);
             Preconditions.checkState(((eepromSize == -1) || (eepromSize == content.length)),
                                      "Inconsistent ROM lengths");
+            Preconditions.checkState((eeproms.isEmpty() || this.defined.equals(defined)),
+                                     "Inconsistent addresses defined for Rom %s", rom);
 
             if (annotations != null) {
-                this.annotations = Arrays.asList(annotations);
+                this.annotations = annotations;
             }
 
-            eeproms.put(rom, Arrays.asList(content));
+            eeproms.put(rom, content);
             eepromSize = content.length;
+            this.defined = defined;
 
             return this;
         }
@@ -134,14 +294,22 @@ public class EepromMap {
     }
 
 
-    private final List<String> annotations;
-    private final EnumMap<Rom, List<Byte>> eeproms;
+    private static final int CYCLE_BITS = 8;
+    private static final int CYCLE_MASK = (1 << CYCLE_BITS) - 1;
+    private static final int NO_ANNOTATION = -1;
+
+    private final String[] descriptions;
+    private final int[] annotations;
+    private final EnumMap<Rom, byte[]> eeproms;
+    private final BitSet defined;
     private final int maxAddress;
 
 
     private EepromMap(@Nonnull Builder builder) {
+        this.descriptions = builder.descriptions;
         this.annotations = builder.annotations;
         this.eeproms = builder.eeproms;
+        this.defined = builder.defined;
         this.maxAddress = (builder.eepromSize - 1);
     }
 
@@ -155,6 +323,17 @@ public class EepromMap {
     }
 
 
+    /**
+     * Returns {@literal true} only if the {@code address} was explicitly set by an instruction. Addresses that
+     * have not been defined hold the inactive state of the ROM.
+     * @param address       Address in the EEPROMs
+     * @return {@literal true} only if the {@code address} was explicitly set by an instruction
+     */
+    public boolean isDefined(int address) {
+        return defined.get(address);
+    }
+
+
     /**
      * Returns the byte associated in {@code address} of the {@code rom}
      * @param rom           EEPROM to examine
@@ -162,28 +341,100 @@ public class EepromMap {
      * @return the byte associated in {@code address} of the {@code rom}
      */
     public byte readByte(@Nonnull Rom rom, int address) {
-        List<Byte> content = eeproms.get(rom);
+        byte[] content = eeproms.get(rom);
+
+        Preconditions.checkArgument((content != null), "Invalid Rom %s", rom);
+        Preconditions.checkArgument(((address >= 0) && (address < content.length)),
+                                    "Address 0x%04x is out of range for Rom %s", address, rom);
+
+        return content[address];
+    }
+
+
+    /**
+     * Returns a copy of the complete image of the {@code rom}
+     * @param rom           EEPROM to examine
+     * @return a copy of the complete image of the {@code rom}
+     */
+    @Nonnull
+    public byte[] readRom(@Nonnull Rom rom) {
+        byte[] content = eeproms.get(rom);
 
-        Preconditions.checkState((content != null), "Invalid Rom %s", rom);
-        Preconditions.checkArgument((address < content.size()), "Address 0x%04x is out of range", address);
-        Preconditions.checkArgument((address >= 0), "Address 0x%04x is out of range", address);
+        Preconditions.checkArgument((content != null), "Invalid Rom %s", rom);
 
-        return content.get(address);
+        return content.clone();
     }
 
 
     /**
-     * Returns the annotation associated with the {@code address}
+     * Returns a read only view of the complete image of the {@code rom}. No data is copied
+     * @param rom           EEPROM to examine
+     * @return a read only view of the complete image of the {@code rom}
+     */
+    @Nonnull
+    public ByteBuffer readImage(@Nonnull Rom rom) {
+        byte[] content = eeproms.get(rom);
+
+        Preconditions.checkArgument((content != null), "Invalid Rom %s", rom);
+
+        return ByteBuffer.wrap(content).asReadOnlyBuffer();
+    }
+
+
+    /**
+     * Copy a range of addresses from the image of the {@code rom} into the {@code destination} buffer
+     * @param rom           EEPROM to examine
+     * @param address       First address in the EEPROM to copy
+     * @param destination   Buffer the data is copied in to
+     * @param offset        Offset into the {@code destination} buffer
+     * @param length        Number of bytes to copy
+     */
+    public void read(@Nonnull Rom rom, int address, @Nonnull byte[] destination, int offset, int length) {
+        byte[] content = eeproms.get(rom);
+
+        Preconditions.checkArgument((content != null), "Invalid Rom %s", rom);
+        Preconditions.checkArgument(((address >= 0) && (length >= 0) && (address + length <= content.length)),
+                                    "Address range 0x%04x + %d is out of range", address, length);
+
+        System.arraycopy(content, address, destination, offset, length);
+    }
+
+
+    /**
+     * Returns the annotation associated with the {@code address}. The text is generated each time this method
+     * is called, so it should only be called if the annotation is going to be used.
      * @param address       Address in the EEPROM
      * @return the annotation associated with the {@code address}
      */
     @Nonnull
     public String readAnnotation(int address) {
-        Preconditions.checkArgument((address < annotations.size()), "Address 0x%04x is out of range", address);
-        Preconditions.checkArgument((address >= 0), "Address 0x%04x is out of range", address);
+        Preconditions.checkArgument(((address >= 0) && (address < annotations.length)),
+                                    "Address 0x%04x is out of range", address);
+
+        int annotation = annotations[address];
+        String text;
+
+        if (annotation == NO_ANNOTATION) {
+            text = "<invalid state>";
+        } else {
+            int opCode = annotation >>> CYCLE_BITS;
+            int cycle = annotation & CYCLE_MASK;
+            String description = descriptions[opCode];
+
+            text = String.format("opCode 0x%02x (%03d), cycle %02d%s%s",
+                                 opCode, opCode, cycle, (description.isEmpty() ? "" : ": "), description);
+        }
+
+        return text;
+    }
+
+
+    @Nonnull
+    private static int[] newAnnotations(int size) {
+        int[] annotations = new int[size];
 
-        String annotation = annotations.get(address);
+        Arrays.fill(annotations, NO_ANNOTATION);
 
-        return (annotation == null ? "<invalid state>" : annotation);
+        return annotations;
     }
 }
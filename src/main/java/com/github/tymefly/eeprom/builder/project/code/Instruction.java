@@ -1,18 +1,14 @@
 package com.github.tymefly.eeprom.builder.project.code;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.github.tymefly.eeprom.builder.project.input.InputPin;
-import com.github.tymefly.eeprom.builder.project.output.OutputPin;
+import com.github.tymefly.eeprom.builder.project.output.OutputPins;
 import com.github.tymefly.eeprom.builder.utils.Preconditions;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -24,20 +20,25 @@ import org.apache.logging.log4j.Logger;
 class Instruction {
     private static final Logger LOGGER = LogManager.getLogger();
 
-    private final List<Set<OutputPin>> cycles;          // The inner set must be immutable as it's exported
+    private final long[] cycles;                        // Control word for each machine cycle
     private final Map<InputPin, Condition> flags;
     private final int maxMCycle;
+    private final OutputPins outputPins;
+
+    private int cycleCount;
 
     private String name;
     private OpCodes.Code opCodes;
 
 
-    Instruction(int maxMCycle) {
+    Instruction(int maxMCycle, @Nonnull OutputPins outputPins) {
         LOGGER.debug("---===| Start Instruction |===---");
 
         this.maxMCycle = maxMCycle;
+        this.outputPins = outputPins;
 
-        this.cycles = new ArrayList<>();
+        this.cycles = new long[maxMCycle + 1];
+        this.cycleCount = 0;
         this.opCodes = null;
         this.flags = new HashMap<>();
     }
@@ -76,38 +77,44 @@ class Instruction {
     }
 
 
-    boolean setMCycle(@Nonnull Set<OutputPin> outputPins) {
-        LOGGER.debug("Index: {} => {}", cycles.size(), outputPins);
+    /**
+     * Add a new machine cycle to the instruction
+     * @param controlWord   The output pins that are asserted in the cycle
+     * @return              {@literal false} if the instruction already has the maximum number of cycles
+     * @see com.github.tymefly.eeprom.builder.project.output.OutputPin#getControlBit()
+     */
+    boolean setMCycle(long controlWord) {
+        int index = cycleCount;
+
+        LOGGER.debug("Index: {} => {}", () -> index, () -> outputPins.getPins(controlWord));
 
-        boolean valid = (cycles.size() <= maxMCycle);
+        boolean valid = (cycleCount <= maxMCycle);
 
         if (valid) {
-            outputPins = Collections.unmodifiableSet(new TreeSet<>(outputPins));
-            cycles.add(outputPins);
+            cycles[cycleCount++] = controlWord;
         }
 
         return valid;
     }
 
 
-    boolean appendMCycle(@Nonnull Set<OutputPin> outputPins) {
+    /**
+     * Assert some more output pins in the last machine cycle of the instruction
+     * @param controlWord   The additional output pins that are asserted
+     * @return              {@literal false} if a new cycle was required but could not be added
+     * @see com.github.tymefly.eeprom.builder.project.output.OutputPin#getControlBit()
+     */
+    boolean appendMCycle(long controlWord) {
         boolean valid;
 
-        if (cycles.isEmpty()) {
-            valid = setMCycle(outputPins);
+        if (cycleCount == 0) {
+            valid = setMCycle(controlWord);
         } else {
-            int index = cycles.size() - 1;
-
-            LOGGER.debug("Index: {}+ => {} ", index, outputPins);
+            int index = cycleCount - 1;
 
-            Set<OutputPin> last = cycles.get(index);
-
-            last = new TreeSet<>(last);
-            last.addAll(outputPins);
-            last = Collections.unmodifiableSet(last);
-
-            cycles.set(index, last);
+            LOGGER.debug("Index: {}+ => {} ", () -> index, () -> outputPins.getPins(controlWord));
 
+            cycles[index] |= controlWord;
             valid = true;
         }
 
@@ -118,7 +125,7 @@ class Instruction {
     void validate() {
         if (isGeneralInstruction()) {
             Preconditions.checkState((opCodes != null), "%s does not have any instructions", name);
-            Preconditions.checkState(!cycles.isEmpty(), "%s does not have any cycles", name);
+            Preconditions.checkState((cycleCount != 0), "%s does not have any cycles", name);
         }
     }
 
@@ -143,9 +150,14 @@ class Instruction {
         return opCodes;
     }
 
-    @Nonnull
-    List<Set<OutputPin>> getMCycles() {
-        return Collections.unmodifiableList(cycles);
+
+    int getMCycleCount() {
+        return cycleCount;
+    }
+
+
+    long getMCycle(int index) {
+        return cycles[index];
     }
 
 
@@ -166,7 +178,7 @@ class Instruction {
         return "Instruction{" +
                 "name='" + (name == null ? "<special>" : name) + '\'' +
                 ", instruction=" + opCodes +
-                ", cycles count=" + cycles.size() +
+                ", cycles count=" + cycleCount +
                 ", flag count=" + flags.size() +
                 '}';
     }
@@ -1,17 +1,23 @@
 package com.github.tymefly.eeprom.builder.project.code;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import com.github.tymefly.eeprom.builder.exception.InternalException;
 import com.github.tymefly.eeprom.builder.io.target.eeprom.Content;
+import com.github.tymefly.eeprom.builder.io.target.eeprom.EntryOrder;
 import com.github.tymefly.eeprom.builder.io.target.report.Report;
 import com.github.tymefly.eeprom.builder.project.input.InputPin;
 import com.github.tymefly.eeprom.builder.project.input.InputPins;
@@ -46,29 +52,32 @@ public class MicroCode {
         private final OutputPins outputPins;
         private final Map<String, Instruction> instructions;
         private final Collection<InputPin> flags;
-        private final Set<OutputPin> unusedOutputs;
+        private long usedOutputs;
         private final int maxMCycle;
+        private final int threads;
 
         private Instruction current = null;
         private Instruction fetchStep = null;
         private Instruction finalStep = null;
         private Instruction unusedCode = null;
         private Instruction nop = null;
-        private Set<OutputPin> halt;
+        private long halt;
 
 
         /**
          * Constructor
          * @param inputPins     A description of all the address pins
          * @param outputPins    A description of all the data pins which may be in multiple ROMs
+         * @param threads       Number of threads used to build the EEPROM images
          */
-        Builder(@Nonnull InputPins inputPins, @Nonnull OutputPins outputPins) {
+        Builder(@Nonnull InputPins inputPins, @Nonnull OutputPins outputPins, int threads) {
             this.inputPins = inputPins;
             this.outputPins = outputPins;
+            this.threads = threads;
             this.instructions = new LinkedHashMap<>();
             this.maxMCycle = inputPins.getMaxMCycle();
             this.flags = inputPins.getPins(InputTypes.FLAG);
-            this.unusedOutputs = new TreeSet<>(outputPins.getPins());
+            this.usedOutputs = 0;
         }
 
 
@@ -109,7 +118,7 @@ public class MicroCode {
             Preconditions.checkState((fetchStep != null), "Fetch step has not been set");
             Preconditions.checkState((finalStep != null), "Final step has not been set");
 
-            int maxCycles = fetchStep.getMCycles().size();
+            int maxCycles = fetchStep.getMCycleCount();
 
             start(maxCycles);
             addFetchCycles();
@@ -147,16 +156,17 @@ public class MicroCode {
 
         /**
          * Set the output pins for the next MCycle
-         * @param outputPins    The output pins that must be asserted for the next MCycle
+         * @param controlWord   The output pins that must be asserted for the next MCycle
          * @return              {@literal true} only if the Cycle was set.
          *                      {@literal false} may indicate that  too many machine cycles has been defined
+         * @see OutputPin#getControlBit()
          */
-        boolean setMCycle(@Nonnull Set<OutputPin> outputPins) {
+        boolean setMCycle(long controlWord) {
             Preconditions.checkState((current != null), "Instruction has not been started");
 
-            unusedOutputs.removeAll(outputPins);
+            usedOutputs |= controlWord;
 
-            return current.setMCycle(outputPins);
+            return current.setMCycle(controlWord);
         }
 
 
@@ -214,31 +224,28 @@ public class MicroCode {
                 completeInstruction();
             }
 
-            current = new Instruction(maxMCycle);
+            current = new Instruction(maxMCycle, outputPins);
         }
 
 
         private void addFetchCycles() {
-            for (var init: fetchStep.getMCycles()) {
-                current.setMCycle(init);
+            for (int index = 0; index < fetchStep.getMCycleCount(); index++) {
+                current.setMCycle(fetchStep.getMCycle(index));
             }
         }
 
 
         private boolean addFinalCycles() {
             boolean valid;
-            List<Set<OutputPin>> finalCycles = finalStep.getMCycles();
+            int finalCycles = finalStep.getMCycleCount();
 
-            if (finalCycles.isEmpty()) {
+            if (finalCycles == 0) {
                 valid = true;
             } else {
-                Set<OutputPin> cycle = finalCycles.get(0);
+                valid = current.appendMCycle(finalStep.getMCycle(0));
 
-                valid = current.appendMCycle(cycle);
-
-                for (int index = 1; index < finalCycles.size(); index++) {
-                    cycle = finalCycles.get(index);
-                    valid = valid && current.setMCycle(cycle);
+                for (int index = 1; index < finalCycles; index++) {
+                    valid = valid && current.setMCycle(finalStep.getMCycle(index));
                 }
             }
 
@@ -271,13 +278,13 @@ public class MicroCode {
 
         // Synthesise a halt cycle
         private void buildHalt() {
-            List<Set<OutputPin>> undefinedCycles = unusedCode.getMCycles();
-            int difference = undefinedCycles.size() - fetchStep.getMCycles().size();
+            int undefinedCycles = unusedCode.getMCycleCount();
+            int difference = undefinedCycles - fetchStep.getMCycleCount();
 
             if (difference == 1) {
-                this.halt = undefinedCycles.get(undefinedCycles.size() - 1);
+                this.halt = unusedCode.getMCycle(undefinedCycles - 1);
             } else if (difference == 0) {
-                this.halt = Collections.emptySet();
+                this.halt = 0;
             } else {
                 throw new InternalException("Unexpected 'undefined' instruction count");
             }
@@ -285,35 +292,88 @@ public class MicroCode {
     }
 
 
+    private static final int OPCODES_PER_SLICE = 16;        // Smallest unit of work for a parallel build
+
     private final int maxCycle;
-    private final Set<OutputPin> halt;                      // The only non-fetch cycle in the "undefined" instruction
+    private final int threads;
+    private final long halt;                                // The only non-fetch cycle in the "undefined" instruction
     private final InputPins inputPins;
     private final OutputPins outputPins;
+    private final Map<String, Instruction> instructions;
+    private final Instruction nop;
+    private final Instruction unusedCode;
     private final AddressMapper addressMapper;
     private final DataMapper dataMapper;
     private final CodeMap codeMap;
+    private final Map<Rom, byte[][]> vectors;               // Data for each cycle of each instruction, by ID
+    private final boolean sequentialCycles;                 // Instruction cycles are at consecutive addresses
+    private String[] descriptions;
+    private AddressDecoder addressDecoder;
     private EepromMap eepromMap;
+    private EepromMap baseMap;                              // Used by an incremental build
+    private int[] changedCodes;                             // OpCodes that have changed since the baseMap was built
 
 
     private MicroCode(@Nonnull Builder builder) {
         this.maxCycle = builder.maxMCycle;
+        this.threads = builder.threads;
         this.halt = builder.halt;
         this.inputPins = builder.inputPins;
         this.outputPins = builder.outputPins;
+        this.instructions = builder.instructions;
+        this.nop = builder.nop;
+        this.unusedCode = builder.unusedCode;
         this.addressMapper = new AddressMapper(builder.inputPins);
         this.dataMapper = new DataMapper(builder.outputPins);
-        this.codeMap = new CodeMap.Builder()
-                .withInputPins(builder.inputPins)
-                .withInstructions(builder.instructions)
-                .withNoOperation(builder.nop)
-                .withUndefinedOp(builder.unusedCode)
-                .build();
-
-        builder.unusedOutputs.forEach(
+        this.codeMap = codeMapBuilder().build();
+        this.vectors = compileInstructions();
+        this.sequentialCycles = addressMapper.hasSequentialCycles(maxCycle);
+
+        builder.outputPins.getPins(~builder.usedOutputs).forEach(
             o -> LOGGER.warn("Output Pin %s (Rom %s, pin %d) is not used", o.getName(), o.getRom(), o.getPin()));
     }
 
 
+    // Map every cycle of every instruction to the data for each ROM once, rather than once for each address
+    @Nonnull
+    private Map<Rom, byte[][]> compileInstructions() {
+        List<Instruction> byId = codeMap.getInstructions();
+        Map<Rom, byte[][]> compiled = new EnumMap<>(Rom.class);
+
+        for (var rom : outputPins.getRoms()) {
+            byte[][] data = new byte[byId.size()][];
+
+            for (int id = 0; id < data.length; id++) {
+                Instruction instruction = byId.get(id);
+
+                data[id] = new byte[instruction.getMCycleCount()];
+
+                for (int mCycle = 0; mCycle < data[id].length; mCycle++) {
+                    data[id][mCycle] = (byte) dataMapper.calculate(rom, instruction.getMCycle(mCycle));
+                }
+            }
+
+            compiled.put(rom, data);
+        }
+
+        return compiled;
+    }
+
+
+    /**
+     * Returns a new CodeMap builder that has been configured with all the instructions in this MicroCode
+     * @return a new CodeMap builder that has been configured with all the instructions in this MicroCode
+     */
+    @Nonnull
+    CodeMap.Builder codeMapBuilder() {
+        return new CodeMap.Builder()
+                .withInputPins(inputPins)
+                .withInstructions(instructions)
+                .withNoOperation(nop)
+                .withUndefinedOp(unusedCode);
+    }
+
+
     /**
      * Generate a text report describing the Microcode
      * @param reporter      A text reporter visitor.
@@ -334,99 +394,391 @@ public class MicroCode {
 
 
     /**
-     * Generate the content for this microcode
+     * Generate the content for this microcode. The complete image of each EEPROM is passed to the {@code writer}
+     * and then, only if it needs them, an entry for each address grouped by opCode.
      * @param writer       A content writer visitor.
      */
     public void generate(@Nonnull Content writer) {
-        Collection<Rom> roms = outputPins.getRoms();
-        Collection<Set<Condition>> allConditions = codeMap.getAllConditions();
+        generate(writer, EntryOrder.OPCODE);
+    }
+
+
+    /**
+     * Generate the content for this microcode. The complete image of each EEPROM is passed to the {@code writer}
+     * and then, only if it needs them, an entry for each address.
+     * @param writer       A content writer visitor.
+     * @param order        The order the entries are generated in
+     */
+    public void generate(@Nonnull Content writer, @Nonnull EntryOrder order) {
         EepromMap eepromMap = getEepromMap();
 
+        for (var rom : outputPins.getRoms()) {
+            writer.image(rom, eepromMap.readImage(rom));
+        }
+
+        if (!writer.needsEntries()) {
+            // Do nothing - the images contain everything the writer needs
+        } else if (order == EntryOrder.ADDRESS) {
+            generateByAddress(writer, eepromMap);
+        } else {
+            generateByOpCode(writer, eepromMap);
+        }
+    }
+
+
+    /**
+     * Returns a copy of the complete image of the {@code rom}, indexed by address
+     * @param rom           One of the EEPROMs described by the output pins
+     * @return a copy of the complete image of the {@code rom}
+     * @see OutputPins#getRoms()
+     */
+    @Nonnull
+    public byte[] getImage(@Nonnull Rom rom) {
+        return getEepromMap().readRom(rom);
+    }
+
+
+    private void generateByOpCode(@Nonnull Content writer, @Nonnull EepromMap eepromMap) {
+        int stateCount = codeMap.getStateCount();
+
         for (var code : codeMap.allValid()) {
-            for (var state : allConditions) {
+            for (int state = 0; state < stateCount; state++) {
                 for (int mCycle = 0; mCycle <= maxCycle; mCycle++) {
                     int address = addressMapper.calculate(state, code, mCycle);
-                    String annotation = eepromMap.readAnnotation(address);
-                    Content.Entry entry = writer.entry()
-                            .forOpCode(code)
-                            .forMCycle(mCycle);
-
-                    for (var flag : state) {
-                        entry = entry.withFlag(flag.getPin(), flag.getState());
-                    }
-
-                    for (var rom : roms) {
-                        entry = entry.toData(rom, eepromMap.readByte(rom, address));
-                    }
 
-                    entry.forAddress(address)
-                         .withAnnotation(annotation)
-                         .apply();
+                    generateEntry(writer, eepromMap, code, state, mCycle, address);
                 }
             }
         }
     }
 
 
+    // Every address is decoded back to the inputs that select it, so unused addresses are also generated
+    private void generateByAddress(@Nonnull Content writer, @Nonnull EepromMap eepromMap) {
+        AddressDecoder decoder = getAddressDecoder();
+        int maxAddress = eepromMap.maxAddress();
+
+        for (int address = 0; address <= maxAddress; address++) {
+            generateEntry(writer,
+                          eepromMap,
+                          decoder.opCode(address),
+                          decoder.state(address),
+                          decoder.mCycle(address),
+                          address);
+        }
+    }
+
+
+    private void generateEntry(@Nonnull Content writer,
+                               @Nonnull EepromMap eepromMap,
+                               int code,
+                               int state,
+                               int mCycle,
+                               int address) {
+        Content.Entry entry = writer.entry()
+                .forOpCode(code)
+                .forMCycle(mCycle)
+                .forFlags(state);
+
+        for (var rom : outputPins.getRoms()) {
+            entry = entry.toData(rom, eepromMap.readByte(rom, address));
+        }
+
+        entry.forAddress(address)
+             .withAnnotation(() -> eepromMap.readAnnotation(address))
+             .apply();
+    }
+
+
+    @Nonnull
+    private synchronized AddressDecoder getAddressDecoder() {
+        if (addressDecoder == null) {
+            int addressCount = 1 << (inputPins.getMaxAddressBit() + 1);
+
+            addressDecoder = new AddressDecoder(addressMapper, addressCount);
+        }
+
+        return addressDecoder;
+    }
+
+
     /**
-     * Returns an object that describes the content of each EEPROM
+     * Returns an object that describes the content of each EEPROM. This is built once, on first use, while holding
+     * the lock so the images can be read from any thread. The descriptions are built by the same thread before any
+     * slice is forked, so the slices never need the lock.
      * @return an object that describes the content of each EEPROM
      */
     @Nonnull
-    private EepromMap getEepromMap() {
+    private synchronized EepromMap getEepromMap() {
         if (eepromMap == null) {
-            EepromMap.Builder builder = new EepromMap.Builder();
+            eepromMap = (baseMap == null ? buildEepromMap() : patchEepromMap(baseMap, changedCodes));
+            baseMap = null;
+            changedCodes = null;
+        }
+
+        return eepromMap;
+    }
+
+
+    /**
+     * Reuse the EEPROM images from the {@code previous} MicroCode so that only the opCodes used by the
+     * {@code changed} instructions need to be regenerated. The caller must ensure that both MicroCodes were compiled
+     * from the same pins and common instructions (fetch, final and unused); only general instructions may differ.
+     * @param previous      MicroCode for a previous build of this project
+     * @param changed       The names of the general instructions that have been added, removed or modified since
+     *                      the {@code previous} build
+     */
+    void inherit(@Nonnull MicroCode previous, @Nonnull Collection<String> changed) {
+        EepromMap base = previous.getEepromMap();
+        int romSize = 1 << (inputPins.getMaxAddressBit() + 1);
+
+        if ((base.maxAddress() + 1) != romSize) {
+            LOGGER.info("ROM size has changed. Full rebuild required");
+        } else {
+            BitSet codes = new BitSet();
+
+            for (var name : changed) {
+                addCodes(codes, previous.instructions.get(name));
+                addCodes(codes, instructions.get(name));
+            }
+
+            baseMap = base;
+            changedCodes = codes.stream().toArray();
+            eepromMap = null;
+        }
+    }
+
+
+    private void addCodes(@Nonnull BitSet codes, @Nullable Instruction instruction) {
+        if (instruction != null) {
+            instruction.getOpCodes().getCodes().forEach(codes::set);
+        }
+    }
+
+
+    /**
+     * Returns a new description of the content of each EEPROM that is a copy of {@code previous} with all the
+     * addresses for the {@code codes} regenerated
+     * @param previous      A map that was built from compatible MicroCode
+     * @param codes         The opCodes to regenerate
+     * @return a new description of the content of each EEPROM
+     * @see #inherit(MicroCode, Collection)
+     */
+    @Nonnull
+    EepromMap patchEepromMap(@Nonnull EepromMap previous, @Nonnull int[] codes) {
+        EepromMap.Builder builder = new EepromMap.Builder(getDescriptions());
+        int stateCount = codeMap.getStateCount();
+
+        LOGGER.info("Incremental build: regenerating %d opCode(s)", codes.length);
+
+        for (var rom : outputPins.getRoms()) {
+            EepromMap.Eeprom eeprom = builder.eeprom(rom)
+                                             .copyOf(previous)
+                                             .setDefault(dataMapper.calculate(rom, halt));
+
+            for (var code : codes) {
+                for (int state = 0; state < stateCount; state++) {
+                    for (int mCycle = 0; mCycle <= maxCycle; mCycle++) {
+                        eeprom.clear(addressMapper.calculate(state, code, mCycle));
+                    }
+                }
+            }
+
+            populate(eeprom, rom, codes, 0, codes.length);
+            builder = eeprom.apply();
+        }
+
+        return builder.build();
+    }
+
+
+    /**
+     * Returns a newly built, uncached, description of the content of each EEPROM
+     * @return a newly built, uncached, description of the content of each EEPROM
+     */
+    @Nonnull
+    EepromMap buildEepromMap() {
+        EepromMap.Builder builder = new EepromMap.Builder(getDescriptions());
+        int[] codes = codeMap.allValid().stream().mapToInt(Integer::intValue).toArray();
+
+        if (threads == 1) {
+            for (var rom : outputPins.getRoms()) {
+                EepromMap.Eeprom eeprom = createEeprom(builder, rom);
+
+                populate(eeprom, rom, codes, 0, codes.length);
+                builder = eeprom.apply();
+            }
+        } else {
+            builder = buildInParallel(builder, codes);
+        }
+
+        return builder.build();
+    }
+
+
+    // Build all the ROMs concurrently; each ROM's opCode range is split into independent slices.
+    @Nonnull
+    private EepromMap.Builder buildInParallel(@Nonnull EepromMap.Builder builder, @Nonnull int[] codes) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        try {
+            List<ForkJoinTask<EepromMap.Eeprom>> tasks = new ArrayList<>();
 
             for (var rom : outputPins.getRoms()) {
-                builder = buildEeprom(builder, rom);
+                EepromMap.Eeprom eeprom = createEeprom(builder, rom);
+
+                tasks.add(pool.submit(new EepromSlice(eeprom, rom, codes, 0, codes.length)));
             }
 
-            eepromMap = builder.build();
+            for (var task : tasks) {
+                builder = task.join().apply();
+            }
+        } finally {
+            pool.shutdownNow();
         }
 
-        return eepromMap;
+        return builder;
     }
 
 
     @Nonnull
-    private EepromMap.Builder buildEeprom(@Nonnull EepromMap.Builder builder, @Nonnull Rom rom) {
-        EepromMap.Eeprom eeprom = builder.eeprom(rom);
-        int maxCode = codeMap.maxOpCode();
-        int addressPinCount = SystemLimits.getMaxAddressBit() + 1;
-        int romSize = 1 << (addressPinCount);
-        Collection<Set<Condition>> allConditions = codeMap.getAllConditions();
+    private EepromMap.Eeprom createEeprom(@Nonnull EepromMap.Builder builder, @Nonnull Rom rom) {
+        int romSize = 1 << (inputPins.getMaxAddressBit() + 1);
         int inactive = dataMapper.calculate(rom, halt);
-        int irMask = inputPins.getIrMask();
 
-        eeprom = eeprom.setMaxAddress(romSize)
-                       .setDefault(inactive);
+        return builder.eeprom(rom)
+                      .setMaxAddress(romSize)
+                      .setDefault(inactive);
+    }
 
-        for (var code : codeMap.allValid()) {
-            String description = getDescription(irMask, code);
 
-            LOGGER.debug("Rom %s: Generate OpCode 0x%02x (%03d) => %s", rom, code, code, description);
+    /**
+     * Write all the instructions for the opCodes in {@code codes[from]} to {@code codes[to - 1]} into an image
+     * @param eeprom        The image to write to
+     * @param rom           The ROM the image describes
+     * @param codes         All valid opCodes
+     * @param from          Index of the first opCode to write (inclusive)
+     * @param to            Index of the last opCode to write (exclusive)
+     */
+    private void populate(@Nonnull EepromMap.Eeprom eeprom, @Nonnull Rom rom, @Nonnull int[] codes, int from, int to) {
+        int addressPinCount = inputPins.getMaxAddressBit() + 1;
+        int allFlags = codeMap.getStateCount() - 1;
+        String[] descriptions = getDescriptions();
+        byte[][] romVectors = vectors.get(rom);
+        boolean bulkCopy = sequentialCycles && !LOGGER.isTraceEnabled();
+
+        for (int index = from; index < to; index++) {
+            int code = codes[index];
+            int relevant = codeMap.getRelevantFlags(code);
+            int ignored = allFlags & ~relevant;
+            int state = 0;
+
+            LOGGER.debug("Rom %s: Generate OpCode 0x%02x (%03d) => %s", rom, code, code, descriptions[code]);
+
+            do {                                                // Each combination of the relevant flags...
+                byte[] vector = romVectors[codeMap.getInstructionId(code, state)];
+                int other = 0;
+
+                do {                                            // ...is replicated across the flags that are ignored
+                    if (bulkCopy) {
+                        eeprom.set(addressMapper.calculate(state | other, code, 0), vector, code);
+                    } else {
+                        populate(eeprom, vector, state | other, code, addressPinCount);
+                    }
 
-            for (var state : allConditions) {
-                Instruction instruction = codeMap.getInstruction(code, state);
-                List<Set<OutputPin>> cycles = instruction.getMCycles();
+                    other = (other - ignored) & ignored;
+                } while (other != 0);
 
-                for (int mCycle = 0; mCycle < cycles.size(); mCycle++) {
-                    Set<OutputPin> cycle = cycles.get(mCycle);
-                    int data = dataMapper.calculate(rom, cycle);
-                    int address = addressMapper.calculate(state, code, mCycle);
+                state = (state - relevant) & relevant;
+            } while (state != 0);
+        }
+    }
 
-                    LOGGER.trace("Address: 0x%04x   %05d   %s => 0x%02x",
-                            address,
-                            address,
-                            StringUtils.asBinary(address, addressPinCount),
-                            data);
 
-                    eeprom = eeprom.set(address, data, code, mCycle, description);
-                }
+    // Write the cycles of a single instruction one address at a time
+    private void populate(@Nonnull EepromMap.Eeprom eeprom,
+                          @Nonnull byte[] vector,
+                          int state,
+                          int code,
+                          int addressPinCount) {
+        for (int mCycle = 0; mCycle < vector.length; mCycle++) {
+            int data = vector[mCycle] & SystemLimits.BYTE_MASK;
+            int address = addressMapper.calculate(state, code, mCycle);
+
+            LOGGER.trace("Address: 0x%04x   %05d   %s => 0x%02x",
+                    address,
+                    address,
+                    StringUtils.asBinary(address, addressPinCount),
+                    data);
+
+            eeprom.set(address, data, code, mCycle);
+        }
+    }
+
+
+    /**
+     * Fork/Join task that populates an image with a range of opCodes. Large ranges are split in two; the lower half
+     * is written by this task while the upper half is written by a new slice of the same image. Each opCode has its
+     * own addresses, so both halves write straight into the shared image and only the record of which addresses the
+     * slice defined is merged back once both halves have completed.
+     */
+    private class EepromSlice extends RecursiveTask<EepromMap.Eeprom> {
+        private static final long serialVersionUID = 0x01;
+
+        private final EepromMap.Eeprom eeprom;
+        private final Rom rom;
+        private final int[] codes;
+        private final int from;
+        private final int to;
+
+
+        EepromSlice(@Nonnull EepromMap.Eeprom eeprom, @Nonnull Rom rom, @Nonnull int[] codes, int from, int to) {
+            this.eeprom = eeprom;
+            this.rom = rom;
+            this.codes = codes;
+            this.from = from;
+            this.to = to;
+        }
+
+
+        @Override
+        @Nonnull
+        protected EepromMap.Eeprom compute() {
+            if ((to - from) <= OPCODES_PER_SLICE) {
+                populate(eeprom, rom, codes, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                EepromSlice upper = new EepromSlice(eeprom.slice(), rom, codes, middle, to);
+
+                upper.fork();
+                new EepromSlice(eeprom, rom, codes, from, middle).compute();
+                eeprom.merge(upper.join());
             }
+
+            return eeprom;
+        }
+    }
+
+
+    /**
+     * Returns the description of every opCode, indexed by opCode. These are built once and shared by all the
+     * EEPROMs, rather than once per opCode per EEPROM
+     * @return the description of every opCode
+     */
+    @Nonnull
+    private String[] getDescriptions() {
+        if (descriptions == null) {
+            int irMask = inputPins.getIrMask();
+            String[] table = new String[codeMap.maxOpCode() + 1];
+
+            for (var code : codeMap.allValid()) {
+                table[code] = getDescription(irMask, code);
+            }
+
+            descriptions = table;
         }
 
-        return eeprom.apply();
+        return descriptions;
     }
 
 
@@ -24,10 +24,14 @@ class OpCodes {
 
         private final String definition;
         private final Collection<Integer> codes;
+        private final int mask;
+        private final int value;
 
-        private Code(@Nonnull String definition, @Nonnull Collection<Integer> codes) {
+        private Code(@Nonnull String definition, @Nonnull Collection<Integer> codes, int mask, int value) {
             this.definition = definition;
             this.codes = Collections.unmodifiableCollection(codes);
+            this.mask = mask;
+            this.value = value;
         }
 
 
@@ -37,6 +41,28 @@ class OpCodes {
         }
 
 
+        /**
+         * Returns a bit mask of the Instruction Register bits that have a fixed value. Every other bit is
+         * {@link PinState#EITHER}
+         * @return a bit mask of the Instruction Register bits that have a fixed value
+         * @see #getValue()
+         */
+        int getMask() {
+            return mask;
+        }
+
+
+        /**
+         * Returns the value of the fixed Instruction Register bits. The opCodes are all the values {@code c} where
+         * {@code (c & getMask()) == getValue()}
+         * @return the value of the fixed Instruction Register bits
+         * @see #getMask()
+         */
+        int getValue() {
+            return value;
+        }
+
+
         @Override
         public String toString() {
             return "Code{definition='" + definition + '\'' + ", codes=" + codes + '}';
@@ -61,8 +87,11 @@ class OpCodes {
      */
     @Nullable
     Code build(@Nonnull String definition) {
-        Collection<Integer> codes = buildCodes(new HashSet<>(), definition.toLowerCase().trim());
-        Code retValue = (codes.isEmpty() ? null : new Code(definition, codes));
+        String bits = definition.toLowerCase().trim();
+        Collection<Integer> codes = buildCodes(new HashSet<>(), bits);
+        int dontCare = Integer.parseInt(bits.replace('1', '0').replace('x', '1'), 2);
+        int value = Integer.parseInt(bits.replace('x', '0'), 2) & irMask;
+        Code retValue = (codes.isEmpty() ? null : new Code(definition, codes, (~dontCare & irMask), value));
 
         return retValue;
     }
@@ -0,0 +1,193 @@
+package com.github.tymefly.eeprom.builder.project.code;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.Nonnull;
+
+/**
+ * An index of ternary patterns that finds every pair of patterns that match a common input. Each pattern is a
+ * {@code mask} of the bits that have a fixed {@code value}; the other bits are "don't care".
+ * <br>
+ * The patterns are recursively partitioned on the bit that the most patterns have a fixed value for, much like a
+ * ternary trie, so only patterns that agree on every partitioned bit are compared with each other.
+ */
+class PatternIndex {
+    /**
+     * Two patterns that match a common input
+     */
+    static class Overlap {
+        private final int first;
+        private final int second;
+        private final long input;
+
+        private Overlap(@Nonnull Pattern first, @Nonnull Pattern second) {
+            this.first = first.id;
+            this.second = second.id;
+            this.input = first.value | second.value;
+        }
+
+
+        /**
+         * Returns the ID of the pattern that was added first
+         * @return the ID of the pattern that was added first
+         */
+        int getFirst() {
+            return first;
+        }
+
+
+        /**
+         * Returns the ID of the pattern that was added second
+         * @return the ID of the pattern that was added second
+         */
+        int getSecond() {
+            return second;
+        }
+
+
+        /**
+         * Returns the lowest input that matches both patterns
+         * @return the lowest input that matches both patterns
+         */
+        long getInput() {
+            return input;
+        }
+    }
+
+
+    private static class Pattern {
+        private final int id;
+        private final int order;
+        private final long mask;
+        private final long value;
+
+        private Pattern(int id, int order, long mask, long value) {
+            this.id = id;
+            this.order = order;
+            this.mask = mask;
+            this.value = value & mask;
+        }
+
+
+        private boolean overlaps(@Nonnull Pattern other) {
+            return ((value ^ other.value) & mask & other.mask) == 0;
+        }
+    }
+
+
+    private static final int LEAF_SIZE = 8;                     // Smaller groups are compared directly
+
+    private final List<Pattern> patterns = new ArrayList<>();
+    private final long allBits;
+
+
+    /**
+     * Constructor
+     * @param width         The number of bits in each pattern
+     */
+    PatternIndex(int width) {
+        this.allBits = (width >= Long.SIZE ? -1L : (1L << width) - 1);
+    }
+
+
+    /**
+     * Add a pattern to the index
+     * @param id            Identifier for the pattern
+     * @param mask          Bit mask of the bits that have a fixed value
+     * @param value         The values of the fixed bits
+     * @return              A fluent interface
+     */
+    @Nonnull
+    PatternIndex add(int id, long mask, long value) {
+        patterns.add(new Pattern(id, patterns.size(), mask & allBits, value));
+
+        return this;
+    }
+
+
+    /**
+     * Returns every pair of patterns that match a common input, in the order the patterns were added
+     * @return every pair of patterns that match a common input
+     */
+    @Nonnull
+    List<Overlap> findOverlaps() {
+        Set<Long> found = new TreeSet<>();
+        List<Overlap> overlaps = new ArrayList<>();
+
+        search(patterns, allBits, found);
+
+        for (var key : found) {
+            overlaps.add(new Overlap(patterns.get((int) (key >>> Integer.SIZE)), patterns.get(key.intValue())));
+        }
+
+        return overlaps;
+    }
+
+
+    private void search(@Nonnull List<Pattern> group, long remaining, @Nonnull Set<Long> found) {
+        long bit = (group.size() <= LEAF_SIZE ? 0 : selectBit(group, remaining));
+
+        if (bit == 0) {
+            compare(group, found);
+        } else {
+            List<Pattern> zeros = new ArrayList<>();
+            List<Pattern> ones = new ArrayList<>();
+
+            for (var pattern : group) {
+                if ((pattern.mask & bit) == 0) {                    // Don't care - matches both branches
+                    zeros.add(pattern);
+                    ones.add(pattern);
+                } else if ((pattern.value & bit) == 0) {
+                    zeros.add(pattern);
+                } else {
+                    ones.add(pattern);
+                }
+            }
+
+            search(zeros, remaining & ~bit, found);
+            search(ones, remaining & ~bit, found);
+        }
+    }
+
+
+    // Returns the remaining bit that the most patterns in the group have a fixed value for, or 0 if there isn't one
+    // that at least half of the patterns have fixed. Splitting on a bit that most patterns don't care about would
+    // copy most of the group into both branches without separating them
+    private long selectBit(@Nonnull List<Pattern> group, long remaining) {
+        long best = 0;
+        int bestCount = 0;
+
+        for (long bits = remaining; bits != 0; bits &= (bits - 1)) {
+            long bit = bits & -bits;
+            int count = 0;
+
+            for (var pattern : group) {
+                count += ((pattern.mask & bit) == 0 ? 0 : 1);
+            }
+
+            if (count > bestCount) {
+                best = bit;
+                bestCount = count;
+            }
+        }
+
+        return ((bestCount * 2) < group.size() ? 0 : best);
+    }
+
+
+    private void compare(@Nonnull List<Pattern> group, @Nonnull Set<Long> found) {
+        for (int first = 0; first < group.size(); first++) {
+            for (int second = first + 1; second < group.size(); second++) {
+                Pattern a = group.get(first);
+                Pattern b = group.get(second);
+
+                if (a.overlaps(b)) {
+                    found.add(((long) a.order << Integer.SIZE) | b.order);  // Groups preserve the order patterns
+                }                                                           // were added, so a is before b
+            }
+        }
+    }
+}
@@ -7,7 +7,6 @@ import java.util.List;
 import javax.annotation.Nonnull;
 
 import com.github.tymefly.eeprom.builder.utils.Preconditions;
-import com.github.tymefly.eeprom.builder.utils.SystemLimits;
 
 /**
  * A model for the project wide settings
@@ -42,8 +41,6 @@ public class GlobalData {
         boolean valid = ((this.maxAddressBit > 0) && (this.maxAddressBit <= MAX_ADDRESS_BIT));
 
         Preconditions.checkArgument(valid, "maxAddressBit is out of range");
-
-        SystemLimits.setMaxAddressBit(this.maxAddressBit);
     }
 
 
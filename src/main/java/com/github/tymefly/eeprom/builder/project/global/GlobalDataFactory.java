@@ -7,8 +7,10 @@ import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 
 import com.github.tymefly.eeprom.builder.exception.SourceFileException;
+import com.github.tymefly.eeprom.builder.io.source.DirectorySource;
 import com.github.tymefly.eeprom.builder.io.source.FileLoader;
 import com.github.tymefly.eeprom.builder.io.source.ProjectFile;
+import com.github.tymefly.eeprom.builder.io.source.ProjectSource;
 import com.github.tymefly.eeprom.builder.io.source.SourceFile;
 import com.github.tymefly.eeprom.builder.io.source.SourceGroup;
 import com.github.tymefly.eeprom.builder.io.source.SourceLine;
@@ -33,8 +35,19 @@ public class GlobalDataFactory extends Source {
      */
     @Nonnull
     public static GlobalData parse(@Nonnull File projectDirectory) {
+        return parse(new DirectorySource(projectDirectory));
+    }
+
+
+    /**
+     * Parse the main project description file
+     * @param source            The source of the project files
+     * @return a model that describes the global settings
+     */
+    @Nonnull
+    public static GlobalData parse(@Nonnull ProjectSource source) {
         GlobalDataFactory me = new GlobalDataFactory();
-        SourceFile description = new FileLoader(projectDirectory, ProjectFile.PROJECT).read();
+        SourceFile description = new FileLoader(source, ProjectFile.PROJECT).read();
 
         return me.parse(description);
     }
@@ -1,10 +1,14 @@
 package com.github.tymefly.eeprom.builder.project.input;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -18,14 +22,19 @@ import com.github.tymefly.eeprom.builder.utils.Preconditions;
 public class InputPins {
     private final Map<InputTypes, Map<String, InputPin>> byGroup;
     private final Map<String, InputPin> byName;
+    private final List<InputPin> flags;
     private int maxMCycle = 0;
     private int irMask = 0;
     private int maxPin = -1;
     private IrBit maxIrPin = IrBit.IR_0;
+    private int maxAddressBit = -1;
+    private Supplier<String> fingerprintSource = () -> "";
+    private String fingerprint;
 
     InputPins() {
         byName = new HashMap<>();
         byGroup = new EnumMap<>(InputTypes.class);
+        flags = new ArrayList<>();
 
         for (var inputType : InputTypes.values()) {
             byGroup.put(inputType, new HashMap<>());
@@ -54,6 +63,11 @@ public class InputPins {
 
             byGroup.get(inputType).put(name, defined);
             byName.put(name, defined);
+
+            if (inputType == InputTypes.FLAG) {
+                flags.add(defined);
+                flags.sort(Comparator.comparingInt(InputPin::getPin));
+            }
         }
 
         return defined;
@@ -163,4 +177,65 @@ public class InputPins {
     public Collection<InputPin> getPins(@Nonnull InputTypes inputType) {
         return Collections.unmodifiableCollection(byGroup.get(inputType).values());
     }
+
+
+    /**
+     * Returns an immutable list of all the {@link InputTypes#FLAG} pins, sorted by address line.
+     * A flag state is expressed as a bit mask where bit {@code n} is set only if the {@code n}th flag in this list
+     * is active. Consequently the numeric order of flag states matches the order of the addresses they select.
+     * @return an immutable list of all the {@link InputTypes#FLAG} pins, sorted by address line
+     * @see #getFlagStateCount()
+     */
+    @Nonnull
+    public List<InputPin> getFlags() {
+        return Collections.unmodifiableList(flags);
+    }
+
+
+    /**
+     * Returns the number of possible flag states. Valid states are in the range {@literal 0} to
+     * {@code getFlagStateCount() - 1}
+     * @return the number of possible flag states
+     * @see #getFlags()
+     */
+    public int getFlagStateCount() {
+        return (1 << flags.size());
+    }
+
+
+    void setMaxAddressBit(int maxAddressBit) {
+        this.maxAddressBit = maxAddressBit;
+    }
+
+
+    /**
+     * Returns the maximum address bit of the EEPROM. The address bits are numbered {@literal A0} -> {@literal Amax},
+     * so the number of address lines is one greater then {@code maxAddressBit}
+     * @return the maximum address bit of the EEPROM
+     * @see com.github.tymefly.eeprom.builder.project.global.GlobalData#getMaxAddressBit()
+     */
+    public int getMaxAddressBit() {
+        return maxAddressBit;
+    }
+
+
+    // The factory supplies a fingerprint of the description file and the width of the address bus
+    void setFingerprint(@Nonnull Supplier<String> fingerprintSource) {
+        this.fingerprintSource = fingerprintSource;
+    }
+
+
+    /**
+     * Returns a fingerprint of the source that describes these pins. Two models that have the same fingerprint
+     * describe the same pins.
+     * @return a fingerprint of the source that describes these pins
+     */
+    @Nonnull
+    public synchronized String getFingerprint() {
+        if (fingerprint == null) {
+            fingerprint = fingerprintSource.get();
+        }
+
+        return fingerprint;
+    }
 }
@@ -7,15 +7,19 @@ import java.util.List;
 import java.util.Set;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import com.github.tymefly.eeprom.builder.exception.SourceFileException;
+import com.github.tymefly.eeprom.builder.io.source.DirectorySource;
 import com.github.tymefly.eeprom.builder.io.source.FileLoader;
 import com.github.tymefly.eeprom.builder.io.source.ProjectFile;
+import com.github.tymefly.eeprom.builder.io.source.ProjectSource;
 import com.github.tymefly.eeprom.builder.io.source.SourceFile;
 import com.github.tymefly.eeprom.builder.io.source.SourceGroup;
 import com.github.tymefly.eeprom.builder.io.source.SourceLine;
 import com.github.tymefly.eeprom.builder.project.Source;
 import com.github.tymefly.eeprom.builder.utils.EnumUtils;
+import com.github.tymefly.eeprom.builder.utils.Fingerprint;
 import com.github.tymefly.eeprom.builder.utils.SystemLimits;
 
 
@@ -26,11 +30,13 @@ public class InputPinsFactory extends Source {
     private static final String PIN_NAME_PATTERN =
                 "[a-z][a-z_]{0,20}";                        // Predefined name are upper case, flags are lowercase
 
+    private final int maxAddressBit;
     private InputPins inputPins;
     private Set<Integer> definedPins;
 
 
-    private InputPinsFactory() {
+    private InputPinsFactory(int maxAddressBit) {
+        this.maxAddressBit = maxAddressBit;
         inputPins = new InputPins();
         definedPins = new HashSet<>();
     }
@@ -39,14 +45,59 @@ public class InputPinsFactory extends Source {
     /**
      * Parse the Input (address) Pin description file
      * @param projectDirectory  The directory that contains the project source code
+     * @param maxAddressBit     The maximum address bit of the EEPROM
      * @return a model that describes the input pins
+     * @see com.github.tymefly.eeprom.builder.project.global.GlobalData#getMaxAddressBit()
      */
     @Nonnull
-    public static InputPins parse(@Nonnull File projectDirectory) {
-        InputPinsFactory me = new InputPinsFactory();
-        SourceFile description = new FileLoader(projectDirectory, ProjectFile.INPUT_DEFINITION).read();
+    public static InputPins parse(@Nonnull File projectDirectory, int maxAddressBit) {
+        return parse(new DirectorySource(projectDirectory), maxAddressBit);
+    }
+
 
-        return me.parse(description);
+    /**
+     * Parse the Input (address) Pin description file
+     * @param source            The source of the project files
+     * @param maxAddressBit     The maximum address bit of the EEPROM
+     * @return a model that describes the input pins
+     * @see com.github.tymefly.eeprom.builder.project.global.GlobalData#getMaxAddressBit()
+     */
+    @Nonnull
+    public static InputPins parse(@Nonnull ProjectSource source, int maxAddressBit) {
+        return parse(source, maxAddressBit, null);
+    }
+
+
+    /**
+     * Parse the Input (address) Pin description file, unless it describes the same pins as a previous build
+     * @param source            The source of the project files
+     * @param maxAddressBit     The maximum address bit of the EEPROM
+     * @param previous          The input pins from a previous build of the project, or {@literal null}
+     * @return a model that describes the input pins. If the source has the same fingerprint as {@code previous}
+     *          then {@code previous} is returned without parsing the file again
+     * @see com.github.tymefly.eeprom.builder.project.global.GlobalData#getMaxAddressBit()
+     */
+    @Nonnull
+    public static InputPins parse(@Nonnull ProjectSource source, int maxAddressBit, @Nullable InputPins previous) {
+        SourceFile description = new FileLoader(source, ProjectFile.INPUT_DEFINITION).read();
+        InputPins inputPins;
+
+        if ((previous != null) && previous.getFingerprint().equals(fingerprint(description, maxAddressBit))) {
+            inputPins = previous;
+        } else {
+            inputPins = new InputPinsFactory(maxAddressBit).parse(description);
+        }
+
+        return inputPins;
+    }
+
+
+    @Nonnull
+    private static String fingerprint(@Nonnull SourceFile description, int maxAddressBit) {
+        return new Fingerprint()
+            .add(description.getFingerprint())
+            .add(Integer.toString(maxAddressBit))
+            .build();
     }
 
 
@@ -60,6 +111,9 @@ public class InputPinsFactory extends Source {
         validateMCycle(description);
         validateIR();
 
+        inputPins.setMaxAddressBit(maxAddressBit);
+        inputPins.setFingerprint(() -> fingerprint(description, maxAddressBit));
+
         return inputPins;
     }
 
@@ -79,7 +133,7 @@ public class InputPinsFactory extends Source {
                 throw new SourceFileException(line, "Invalid %s field '%s'", inputTypes, columns[0]);
             }
 
-            if (!SystemLimits.isValidAddressBit(pin)) {
+            if (!SystemLimits.isValidAddressBit(pin, maxAddressBit)) {
                 throw new SourceFileException(line, "Invalid pin '%s' for '%s'", columns[1], name);
             }
 
@@ -109,7 +163,7 @@ public class InputPinsFactory extends Source {
                 throw new SourceFileException(line, "Invalid pin name '%s'", name);
             }
 
-            if (!SystemLimits.isValidAddressBit(pin)) {
+            if (!SystemLimits.isValidAddressBit(pin, maxAddressBit)) {
                 throw new SourceFileException(line, "Invalid pin '%s' for '%s'", columns[1], name);
             }
 
@@ -3,6 +3,8 @@ package com.github.tymefly.eeprom.builder.project.output;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
 
+import com.github.tymefly.eeprom.builder.utils.SystemLimits;
+
 /**
  * A Model for each of the Data pins in in the system.
  */
@@ -12,6 +14,7 @@ public class OutputPin implements Comparable<OutputPin> {
     private final Rom rom;
     private final int pin;
     private final boolean activeLow;
+    private final long controlBit;
 
 
     /**
@@ -26,6 +29,7 @@ public class OutputPin implements Comparable<OutputPin> {
         this.rom = rom;
         this.pin = pin;
         this.activeLow = activeLow;
+        this.controlBit = 1L << (((rom.getRomNumber() - 1) * SystemLimits.BITS_IN_BYTE) + pin);
     }
 
 
@@ -69,6 +73,16 @@ public class OutputPin implements Comparable<OutputPin> {
     }
 
 
+    /**
+     * Returns the bit that represents this output pin in a control word. A control word holds the state of every
+     * output pin in every ROM; each ROM has its own byte, with {@link Rom#ROM_1} in the least significant byte.
+     * @return the bit that represents this output pin in a control word
+     */
+    public long getControlBit() {
+        return controlBit;
+    }
+
+
     @Override
     public boolean equals(Object other) {
         boolean equals;
@@ -8,6 +8,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.Supplier;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -24,6 +25,8 @@ public class OutputPins {
     private final Collection<Rom> roms;
     private final Map<Rom, Set<OutputPin>> byRom;
     private final Map<String, OutputPin> byName;
+    private Supplier<String> fingerprintSource = () -> "";
+    private String fingerprint;
 
 
     OutputPins() {
@@ -95,4 +98,45 @@ public class OutputPins {
     public Collection<OutputPin> getPins() {
         return Collections.unmodifiableCollection(byName.values());
     }
+
+
+    /**
+     * Returns a sorted collection of the pins that are asserted in a {@code controlWord}
+     * @param controlWord   A control word for all the ROMs
+     * @return a sorted collection of the pins that are asserted in a {@code controlWord}
+     * @see OutputPin#getControlBit()
+     */
+    @Nonnull
+    public Collection<OutputPin> getPins(long controlWord) {
+        Collection<OutputPin> pins = new TreeSet<>();
+
+        for (var pin : byName.values()) {
+            if ((controlWord & pin.getControlBit()) != 0) {
+                pins.add(pin);
+            }
+        }
+
+        return pins;
+    }
+
+
+    // The factory supplies a fingerprint of the description file, which defines every data pin of every ROM
+    void setFingerprint(@Nonnull Supplier<String> fingerprintSource) {
+        this.fingerprintSource = fingerprintSource;
+    }
+
+
+    /**
+     * Returns a fingerprint of the source that describes these pins. Two models that have the same fingerprint
+     * describe the same pins.
+     * @return a fingerprint of the source that describes these pins
+     */
+    @Nonnull
+    public synchronized String getFingerprint() {
+        if (fingerprint == null) {
+            fingerprint = fingerprintSource.get();
+        }
+
+        return fingerprint;
+    }
 }
@@ -5,10 +5,13 @@ import java.util.HashSet;
 import java.util.Set;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import com.github.tymefly.eeprom.builder.exception.SourceFileException;
+import com.github.tymefly.eeprom.builder.io.source.DirectorySource;
 import com.github.tymefly.eeprom.builder.io.source.FileLoader;
 import com.github.tymefly.eeprom.builder.io.source.ProjectFile;
+import com.github.tymefly.eeprom.builder.io.source.ProjectSource;
 import com.github.tymefly.eeprom.builder.io.source.SourceFile;
 import com.github.tymefly.eeprom.builder.io.source.SourceGroup;
 import com.github.tymefly.eeprom.builder.io.source.SourceLine;
@@ -31,10 +34,40 @@ public class OutputPinsFactory extends Source {
      */
     @Nonnull
     public static OutputPins parse(@Nonnull File projectDirectory) {
-        OutputPinsFactory me = new OutputPinsFactory();
-        SourceFile description = new FileLoader(projectDirectory, ProjectFile.OUTPUT_DEFINITION).read();
+        return parse(new DirectorySource(projectDirectory));
+    }
+
 
-        return me.parse(description);
+    /**
+     * Parse the Output (data) Pin description file
+     * @param source            The source of the project files
+     * @return a model that describes the output pins
+     */
+    @Nonnull
+    public static OutputPins parse(@Nonnull ProjectSource source) {
+        return parse(source, null);
+    }
+
+
+    /**
+     * Parse the Output (data) Pin description file, unless it describes the same pins as a previous build
+     * @param source            The source of the project files
+     * @param previous          The output pins from a previous build of the project, or {@literal null}
+     * @return a model that describes the output pins. If the source has the same fingerprint as {@code previous}
+     *          then {@code previous} is returned without parsing the file again
+     */
+    @Nonnull
+    public static OutputPins parse(@Nonnull ProjectSource source, @Nullable OutputPins previous) {
+        SourceFile description = new FileLoader(source, ProjectFile.OUTPUT_DEFINITION).read();
+        OutputPins outputPins;
+
+        if ((previous != null) && previous.getFingerprint().equals(description.getFingerprint())) {
+            outputPins = previous;
+        } else {
+            outputPins = new OutputPinsFactory().parse(description);
+        }
+
+        return outputPins;
     }
 
 
@@ -50,6 +83,8 @@ public class OutputPinsFactory extends Source {
             }
         }
 
+        outputPins.setFingerprint(description::getFingerprint);
+
         return outputPins;
     }
 
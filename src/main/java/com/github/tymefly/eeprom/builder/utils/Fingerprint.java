@@ -0,0 +1,76 @@
+package com.github.tymefly.eeprom.builder.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import javax.annotation.Nonnull;
+
+import com.github.tymefly.eeprom.builder.exception.InternalException;
+
+/**
+ * Builder for a fingerprint that identifies some text or data. Two fingerprints are only equal if they were built
+ * from the same sequence of values.
+ */
+public class Fingerprint {
+    private static final String ALGORITHM = "SHA-256";
+    private static final byte SEPARATOR = 0;
+
+    private final MessageDigest digest;
+
+
+    /**
+     * Start a new fingerprint
+     */
+    public Fingerprint() {
+        try {
+            digest = MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new InternalException(ALGORITHM + " is not supported", e);
+        }
+    }
+
+
+    /**
+     * Add some {@code text} to the fingerprint
+     * @param text          Text to add
+     * @return              A fluent interface
+     */
+    @Nonnull
+    public Fingerprint add(@Nonnull String text) {
+        digest.update(text.getBytes(StandardCharsets.UTF_8));
+        digest.update(SEPARATOR);                       // Ensure "ab" + "c" differs from "a" + "bc"
+
+        return this;
+    }
+
+
+    /**
+     * Add some raw {@code data} to the fingerprint
+     * @param data          Data to add
+     * @return              A fluent interface
+     */
+    @Nonnull
+    public Fingerprint add(@Nonnull byte[] data) {
+        digest.update(data);
+        digest.update(SEPARATOR);
+
+        return this;
+    }
+
+
+    /**
+     * Returns the completed fingerprint as a hex string. No further text can be added
+     * @return the completed fingerprint as a hex string
+     */
+    @Nonnull
+    public String build() {
+        StringBuilder builder = new StringBuilder();
+
+        for (byte value : digest.digest()) {
+            builder.append(String.format("%02x", value));
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,158 @@
+package com.github.tymefly.eeprom.builder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit test for {@link BuildServer}. Requests are sent over a real socket, so these tests also describe the protocol
+ */
+public class BuildServerTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private BuildServer server;
+    private Thread daemon;
+
+
+    @Before
+    public void setUp() {
+        server = new BuildServer(0);
+        daemon = new Thread(server::run, "build daemon");
+        daemon.start();
+    }
+
+
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+        daemon.join();
+    }
+
+
+    /**
+     * Unit test {@link BuildServer#run()}
+     */
+    @Test
+    public void test_framing() throws Exception {
+        List<String> reply = send("1", "--help");
+
+        Assert.assertEquals("Unexpected status", "EXIT 0", reply.get(reply.size() - 1));
+
+        for (var line : reply.subList(0, reply.size() - 1)) {
+            Assert.assertTrue("Output is not framed: " + line, line.startsWith(BuildServer.OUTPUT));
+        }
+
+        Assert.assertTrue("Usage was not sent", reply.stream().anyMatch(l -> l.contains("Usage:")));
+    }
+
+
+    /**
+     * Unit test {@link BuildServer#run()}. Build output that looks like a status can not be mistaken for one
+     */
+    @Test
+    public void test_outputLooksLikeStatus() throws Exception {
+        List<String> reply = send("2", "-r", "EXIT 0");
+
+        Assert.assertEquals("Unexpected status", "EXIT 1", reply.get(reply.size() - 1));
+        Assert.assertEquals("Unexpected number of status lines",
+                            1,
+                            reply.stream().filter(l -> l.startsWith(BuildServer.EXIT)).count());
+        Assert.assertTrue("Invalid value was not reported",
+                          reply.stream().anyMatch(l -> l.startsWith("OUT Error: \"EXIT 0\"")));
+    }
+
+
+    /**
+     * Unit test {@link BuildServer#run()}. An empty argument does not end the request
+     */
+    @Test
+    public void test_emptyArgument() throws Exception {
+        List<String> reply = send("3", "-r", "", "--help");
+
+        Assert.assertEquals("Unexpected status", "EXIT 1", reply.get(reply.size() - 1));
+        Assert.assertTrue("Empty value was not reported",
+                          reply.stream().anyMatch(l -> l.startsWith("OUT Error: \"\"")));
+    }
+
+
+    /**
+     * Unit test {@link BuildServer#run()}
+     */
+    @Test
+    public void test_invalidArgumentCount() throws Exception {
+        assertRejected(send("x"), "x");
+        assertRejected(send("-1"), "-1");
+        assertRejected(send("2000000000"), "2000000000");
+
+        List<String> reply = send("1", "--help");
+
+        Assert.assertEquals("Daemon did not survive", "EXIT 0", reply.get(reply.size() - 1));
+    }
+
+
+    /**
+     * Unit test {@link BuildServer#run()}. A failed build is reported and the daemon carries on serving requests
+     */
+    @Test
+    public void test_failedBuild() throws Exception {
+        List<String> reply = send("1", temp.getRoot().getAbsolutePath());
+
+        Assert.assertEquals("Unexpected status", "EXIT 1", reply.get(reply.size() - 1));
+
+        reply = send("1", "--help");
+
+        Assert.assertEquals("Daemon did not survive", "EXIT 0", reply.get(reply.size() - 1));
+    }
+
+
+    private void assertRejected(@Nonnull List<String> reply, @Nonnull String count) {
+        Assert.assertEquals("Unexpected reply for " + count,
+                            List.of("OUT Error: Invalid argument count " + count +
+                                        ". A request can have 0 to 1024 arguments",
+                                    "EXIT 1"),
+                            reply);
+    }
+
+
+    // Send the working directory followed by the raw request lines and return every line of the reply
+    @Nonnull
+    private List<String> send(@Nonnull String... request) throws IOException {
+        List<String> reply = new ArrayList<>();
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            PrintStream out = new PrintStream(socket.getOutputStream(), false, StandardCharsets.UTF_8);
+            BufferedReader in =
+                new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+            out.println(temp.getRoot().getAbsolutePath());
+
+            for (var line : request) {
+                out.println(line);
+            }
+
+            out.flush();
+
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                reply.add(line);
+            }
+        }
+
+        return reply;
+    }
+}
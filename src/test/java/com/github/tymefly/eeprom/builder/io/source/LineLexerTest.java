@@ -0,0 +1,134 @@
+package com.github.tymefly.eeprom.builder.io.source;
+
+import java.util.Random;
+
+import javax.annotation.Nonnull;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link LineLexer}. The lexer replaced a pipeline of regular expressions, so the expected results
+ * are calculated by that pipeline.
+ */
+public class LineLexerTest {
+    private static final String[] EDGE_CASES = {
+        "",
+        " ",
+        "\t",
+        "a",
+        " a",
+        "a ",
+        "  a  b  ",
+        "a  b",
+        "a\tb",
+        "a \t b",
+        "a\u000Bb",                                 // Vertical tab is whitespace but not horizontal whitespace
+        "a\fb",
+        "a\rb",
+        "a \u000B b",
+        "\u000Ba",
+        "a\u00A0b",                                 // Non-breaking space is horizontal whitespace but not \s
+        "\u00A0a",
+        "a\u00A0",
+        "a \u00A0 b",
+        "a\u3000b",
+        "a\u2000\u200Ab",
+        "a \u2028",                                 // '$' also matches before a final line separator
+        "a \u2029",
+        "a \u0085",
+        "a\u2028",
+        "a \u2028b",
+        "a \u2028 ",
+        "a // comment",
+        "a// comment",
+        "// comment",
+        "  // comment",
+        "a //b// c",
+        "a / b",
+    };
+
+    private static final char[] ALPHABET = {
+        'a', 'b', '/', ' ', '\t', '\u000B', '\f', '\r', '\u00A0', '\u2000', '\u2028', '\u2029', '\u0085', '\u3000'
+    };
+
+
+    /**
+     * Unit test {@link LineLexer#scan(String)}
+     */
+    @Test
+    public void test_edgeCases() {
+        LineLexer lexer = new LineLexer();
+
+        for (var line : EDGE_CASES) {
+            verify(lexer, line);
+        }
+    }
+
+
+    /**
+     * Unit test {@link LineLexer#scan(String)} with random lines. The seed is fixed so failures can be reproduced
+     */
+    @Test
+    public void test_random() {
+        LineLexer lexer = new LineLexer();
+        Random random = new Random(0x5eed);
+        StringBuilder line = new StringBuilder();
+
+        for (int count = 0; count < 100_000; count++) {
+            int length = random.nextInt(12);
+
+            line.setLength(0);
+
+            for (int index = 0; index < length; index++) {
+                line.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+            }
+
+            verify(lexer, line.toString());
+        }
+    }
+
+
+    /**
+     * Unit test {@link LineLexer#getColumns()}
+     */
+    @Test
+    public void test_columns() {
+        LineLexer lexer = new LineLexer().scan("  abc\t def  // comment");
+
+        Assert.assertEquals("Unexpected text", " abc def", lexer.getText());
+        Assert.assertArrayEquals("Unexpected columns", new String[] {"", "abc", "def"}, lexer.getColumns());
+    }
+
+
+    private void verify(@Nonnull LineLexer lexer, @Nonnull String line) {
+        String text = expectedText(line);
+        String description = "Line \"" + escape(line) + "\"";
+
+        lexer.scan(line);
+
+        Assert.assertEquals(description + ": unexpected text", text, lexer.getText());
+        Assert.assertArrayEquals(description + ": unexpected columns", text.split("\\h+"), lexer.getColumns());
+    }
+
+
+    // The original clean up of each line
+    @Nonnull
+    private String expectedText(@Nonnull String line) {
+        int comment = line.indexOf("//");
+        String text = (comment == -1 ? line : line.substring(0, comment));
+
+        return text.replaceAll("\\s+$", "")
+                   .replaceAll("\\s+", " ");
+    }
+
+
+    @Nonnull
+    private String escape(@Nonnull String line) {
+        StringBuilder escaped = new StringBuilder();
+
+        line.chars().forEach(c -> escaped.append((c < ' ') || (c > '~') ? String.format("\\u%04X", c) : (char) c));
+
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,234 @@
+package com.github.tymefly.eeprom.builder.io.target;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import com.github.tymefly.eeprom.builder.io.source.ProjectFile;
+import com.github.tymefly.eeprom.builder.io.target.BuildCache.Stage;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit test for {@link BuildCache}
+ */
+public class BuildCacheTest {
+    private static final String SETTINGS = "formats=[SREC], recordLength=16";
+    private static final String REPORT = "OpCodes.txt";
+    private static final String IMAGE = "Rom1.srec";
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private File projectDirectory;
+    private File targetDirectory;
+
+
+    @Before
+    public void setUp() throws Exception {
+        projectDirectory = temp.newFolder("project");
+        targetDirectory = new File(projectDirectory, "target");
+
+        for (var file : ProjectFile.values()) {
+            write(new File(projectDirectory, file.getFileName()), "// " + file.name());
+        }
+    }
+
+
+    /**
+     * Unit test {@link BuildCache#isUpToDate(Stage...)}
+     */
+    @Test
+    public void test_firstBuild() {
+        BuildCache cache = new BuildCache(projectDirectory, targetDirectory, true, SETTINGS);
+
+        Assert.assertFalse("Reports are up to date", cache.isUpToDate(Stage.REPORTS));
+        Assert.assertFalse("Content is up to date", cache.isUpToDate(Stage.CONTENT));
+        Assert.assertFalse("Reports were reused", cache.reuse(Stage.REPORTS));
+    }
+
+
+    /**
+     * Unit test {@link BuildCache#reuse(Stage)}
+     */
+    @Test
+    public void test_cacheHit() throws Exception {
+        build(SETTINGS);
+
+        BuildCache cache = new BuildCache(projectDirectory, targetDirectory, true, SETTINGS);
+
+        Assert.assertTrue("Stages are out of date", cache.isUpToDate(Stage.values()));
+        Assert.assertTrue("Reports were not reused", cache.reuse(Stage.REPORTS));
+        Assert.assertTrue("Content was not reused", cache.reuse(Stage.CONTENT));
+
+        cache.prepare();
+        cache.save();
+
+        Assert.assertTrue("Report was deleted", new File(targetDirectory, REPORT).isFile());
+        Assert.assertTrue("Image was deleted", new File(targetDirectory, IMAGE).isFile());
+        Assert.assertTrue("Manifest was not kept",
+                          new BuildCache(projectDirectory, targetDirectory, true, SETTINGS).isUpToDate(Stage.values()));
+    }
+
+
+    /**
+     * Unit test {@link BuildCache#isUpToDate(Stage...)}
+     */
+    @Test
+    public void test_sourceChanged() throws Exception {
+        build(SETTINGS);
+        append(new File(projectDirectory, ProjectFile.CODE.getFileName()), "X");
+
+        BuildCache cache = new BuildCache(projectDirectory, targetDirectory, true, SETTINGS);
+
+        Assert.assertFalse("Reports are up to date", cache.isUpToDate(Stage.REPORTS));
+        Assert.assertFalse("Content is up to date", cache.isUpToDate(Stage.CONTENT));
+    }
+
+
+    /**
+     * Unit test {@link BuildCache#isUpToDate(Stage...)}. The reports do not depend on the project file
+     */
+    @Test
+    public void test_projectChanged() throws Exception {
+        build(SETTINGS);
+        append(new File(projectDirectory, ProjectFile.PROJECT.getFileName()), "X");
+
+        BuildCache cache = new BuildCache(projectDirectory, targetDirectory, true, SETTINGS);
+
+        Assert.assertTrue("Reports are out of date", cache.isUpToDate(Stage.REPORTS));
+        Assert.assertFalse("Content is up to date", cache.isUpToDate(Stage.CONTENT));
+
+        cache.prepare();
+
+        Assert.assertTrue("Report was deleted", new File(targetDirectory, REPORT).isFile());
+        Assert.assertFalse("Image was not deleted", new File(targetDirectory, IMAGE).exists());
+    }
+
+
+    /**
+     * Unit test {@link BuildCache#isUpToDate(Stage...)}. The reports do not depend on the output settings
+     */
+    @Test
+    public void test_settingsChanged() throws Exception {
+        build(SETTINGS);
+
+        BuildCache cache = new BuildCache(projectDirectory, targetDirectory, true, "formats=[HEX], recordLength=16");
+
+        Assert.assertTrue("Reports are out of date", cache.isUpToDate(Stage.REPORTS));
+        Assert.assertFalse("Content is up to date", cache.isUpToDate(Stage.CONTENT));
+    }
+
+
+    /**
+     * Unit test {@link BuildCache#isUpToDate(Stage...)}
+     */
+    @Test
+    public void test_outputModified() throws Exception {
+        build(SETTINGS);
+        append(new File(targetDirectory, IMAGE), "X");
+
+        BuildCache cache = new BuildCache(projectDirectory, targetDirectory, true, SETTINGS);
+
+        Assert.assertTrue("Reports are out of date", cache.isUpToDate(Stage.REPORTS));
+        Assert.assertFalse("Content is up to date", cache.isUpToDate(Stage.CONTENT));
+    }
+
+
+    /**
+     * Unit test {@link BuildCache#isUpToDate(Stage...)}
+     */
+    @Test
+    public void test_outputDeleted() throws Exception {
+        build(SETTINGS);
+        Files.delete(new File(targetDirectory, REPORT).toPath());
+
+        BuildCache cache = new BuildCache(projectDirectory, targetDirectory, true, SETTINGS);
+
+        Assert.assertFalse("Reports are up to date", cache.isUpToDate(Stage.REPORTS));
+        Assert.assertTrue("Content is out of date", cache.isUpToDate(Stage.CONTENT));
+    }
+
+
+    /**
+     * Unit test {@link BuildCache#isUpToDate(Stage...)} for a failed build. The manifest is only saved if the
+     * build completes
+     */
+    @Test
+    public void test_failedBuild() throws Exception {
+        build(SETTINGS);
+        append(new File(projectDirectory, ProjectFile.CODE.getFileName()), "X");
+        new BuildCache(projectDirectory, targetDirectory, true, SETTINGS).prepare();
+
+        BuildCache cache = new BuildCache(projectDirectory, targetDirectory, true, SETTINGS);
+
+        Assert.assertFalse("Reports are up to date", cache.isUpToDate(Stage.REPORTS));
+        Assert.assertFalse("Content is up to date", cache.isUpToDate(Stage.CONTENT));
+    }
+
+
+    /**
+     * Unit test {@link BuildCache} when it is disabled
+     */
+    @Test
+    public void test_disabled() throws Exception {
+        build(SETTINGS);
+
+        BuildCache cache = new BuildCache(projectDirectory, targetDirectory, false, SETTINGS);
+
+        Assert.assertFalse("Stages are up to date", cache.isUpToDate(Stage.REPORTS));
+        Assert.assertFalse("Stages are up to date", cache.isUpToDate(Stage.CONTENT));
+
+        cache.prepare();
+
+        Assert.assertArrayEquals("Target directory was not cleared", new String[0], targetDirectory.list());
+    }
+
+
+    /**
+     * Unit test {@link BuildCache} when it is disabled. The project files are not read
+     */
+    @Test
+    public void test_disabled_missingSource() {
+        for (var file : ProjectFile.values()) {
+            Assert.assertTrue("Failed to delete " + file, new File(projectDirectory, file.getFileName()).delete());
+        }
+
+        BuildCache cache = new BuildCache(projectDirectory, targetDirectory, false, SETTINGS);
+
+        Assert.assertFalse("Stages are up to date", cache.isUpToDate(Stage.REPORTS));
+    }
+
+
+    // Simulate a successful build that writes a report and an image
+    private void build(@Nonnull String settings) throws IOException {
+        BuildCache cache = new BuildCache(projectDirectory, targetDirectory, true, settings);
+        File report = new File(targetDirectory, REPORT);
+        File image = new File(targetDirectory, IMAGE);
+
+        cache.prepare();
+        write(report, "report");
+        write(image, "image");
+        cache.record(Stage.REPORTS, List.of(report));
+        cache.record(Stage.CONTENT, List.of(image));
+        cache.save();
+    }
+
+
+    private void write(@Nonnull File file, @Nonnull String text) throws IOException {
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    private void append(@Nonnull File file, @Nonnull String text) throws IOException {
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.tymefly.eeprom.builder.io.target.eeprom.bin;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import com.github.tymefly.eeprom.builder.project.output.Rom;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit test for {@link BinWriter}
+ */
+public class BinWriterTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private File destination;
+
+
+    @Before
+    public void setUp() {
+        destination = new File(temp.getRoot(), "Rom1.bin");
+    }
+
+
+    /**
+     * Unit test {@link BinWriter#close()}
+     */
+    @Test
+    public void test_image() throws Exception {
+        BinWriter writer = new BinWriter(destination, Rom.ROM_1, 4);
+
+        writer.applyImage(Rom.ROM_1, ByteBuffer.wrap(new byte[] { 0x01, 0x02, (byte) 0xfe, (byte) 0xff }));
+        writer.applyImage(Rom.ROM_2, ByteBuffer.allocate(4));                   // Ignored - not this ROM
+        writer.close();
+
+        Assert.assertArrayEquals("Unexpected content",
+                                 new byte[] { 0x01, 0x02, (byte) 0xfe, (byte) 0xff },
+                                 Files.readAllBytes(destination.toPath()));
+    }
+
+
+    /**
+     * Unit test {@link BinWriter#close()}
+     */
+    @Test
+    public void test_sharedImageUnchanged() throws Exception {
+        ByteBuffer image = ByteBuffer.wrap(new byte[] { 0x11, 0x22, 0x33, 0x44 });
+        BinWriter writer = new BinWriter(destination, Rom.ROM_1, 4);
+
+        image.position(3);
+        writer.applyImage(Rom.ROM_1, image);
+        writer.close();
+
+        Assert.assertArrayEquals("Unexpected content",
+                                 new byte[] { 0x11, 0x22, 0x33, 0x44 },
+                                 Files.readAllBytes(destination.toPath()));
+        Assert.assertEquals("Shared image was modified", 3, image.position());
+    }
+
+
+    /**
+     * Unit test {@link BinWriter#close()}
+     */
+    @Test
+    public void test_truncatesToSize() throws Exception {
+        BinWriter writer = new BinWriter(destination, Rom.ROM_1, 2);
+
+        Files.write(destination.toPath(), new byte[] { 0x55, 0x55, 0x55, 0x55, 0x55 });
+        writer.applyImage(Rom.ROM_1, ByteBuffer.wrap(new byte[] { 0x01, 0x02, 0x03, 0x04 }));
+        writer.close();
+
+        Assert.assertArrayEquals("Unexpected content",
+                                 new byte[] { 0x01, 0x02 },
+                                 Files.readAllBytes(destination.toPath()));
+    }
+
+
+    /**
+     * Unit test {@link BinWriter#close()}
+     */
+    @Test(expected = IllegalStateException.class)
+    public void test_noImage() {
+        new BinWriter(destination, Rom.ROM_1, 4).close();
+    }
+}
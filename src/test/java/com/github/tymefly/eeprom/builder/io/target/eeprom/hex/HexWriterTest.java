@@ -0,0 +1,178 @@
+package com.github.tymefly.eeprom.builder.io.target.eeprom.hex;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import com.github.tymefly.eeprom.builder.project.output.Rom;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit test for {@link HexWriter}
+ */
+public class HexWriterTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private File destination;
+
+
+    @Before
+    public void setUp() {
+        destination = new File(temp.getRoot(), "Rom1.hex");
+    }
+
+
+    /**
+     * Unit test {@link HexWriter#close()}
+     */
+    @Test
+    public void test_checksum() throws Exception {
+        List<String> lines = write(image(0x01, 0x02, 0x03, 0x04), 16);
+
+        Assert.assertEquals("Unexpected records",
+                            List.of(":0400000001020304F2", ":00000001FF"),
+                            lines);
+    }
+
+
+    /**
+     * Unit test {@link HexWriter#close()}
+     */
+    @Test
+    public void test_checksumWrapsAround() throws Exception {
+        List<String> lines = write(image(0xff, 0xff, 0xff), 16);
+
+        Assert.assertEquals("Unexpected records",
+                            List.of(":03000000FFFFFF00", ":00000001FF"),
+                            lines);
+    }
+
+
+    /**
+     * Unit test {@link HexWriter#close()}
+     */
+    @Test
+    public void test_recordLength() throws Exception {
+        List<String> lines = write(image(0x10, 0x20, 0x30, 0x40, 0x50), 2);
+
+        Assert.assertEquals("Unexpected records",
+                            List.of(":020000001020CE", ":0200020030408C", ":0100040050AB", ":00000001FF"),
+                            lines);
+    }
+
+
+    /**
+     * Unit test {@link HexWriter#close()}
+     */
+    @Test
+    public void test_extendedLinearAddress() throws Exception {
+        ByteBuffer image = ByteBuffer.allocate(0x10002);
+
+        image.put(0xffff, (byte) 0xaa)
+             .put(0x10000, (byte) 0x55)
+             .put(0x10001, (byte) 0x66);
+
+        List<String> lines = write(image, 16);
+        int ela = lines.indexOf(":020000040001F9");
+
+        Assert.assertEquals("Unexpected number of records", 0x1000 + 3, lines.size());
+        Assert.assertEquals("Extended Linear Address record is missing", 0x1000, ela);
+        Assert.assertEquals("Unexpected last record below 64K",
+                            ":10FFF000000000000000000000000000000000AA57",
+                            lines.get(ela - 1));
+        Assert.assertEquals("Unexpected first record above 64K", ":02000000556643", lines.get(ela + 1));
+        Assert.assertEquals("Unexpected end of file", ":00000001FF", lines.get(ela + 2));
+    }
+
+
+    /**
+     * Unit test {@link HexWriter#close()} with one byte records. The address records are longer than the data
+     */
+    @Test
+    public void test_extendedLinearAddress_shortRecords() throws Exception {
+        ByteBuffer image = ByteBuffer.allocate(0x10001);
+
+        image.put(0x10000, (byte) 0x42);
+
+        List<String> lines = write(image, 1);
+
+        Assert.assertEquals("Unexpected number of records", 0x10000 + 3, lines.size());
+        Assert.assertEquals("Unexpected address record", ":020000040001F9", lines.get(0x10000));
+        Assert.assertEquals("Unexpected data record", ":0100000042BD", lines.get(0x10001));
+    }
+
+
+    /**
+     * Unit test {@link HexWriter#close()}
+     */
+    @Test
+    public void test_everyRecordHasValidChecksum() throws Exception {
+        ByteBuffer image = ByteBuffer.allocate(0x20000);
+
+        for (int address = 0; address < image.capacity(); address++) {
+            image.put(address, (byte) (address * 7));
+        }
+
+        for (var line : write(image, 32)) {
+            int sum = 0;
+
+            for (int index = 1; index < line.length(); index += 2) {
+                sum += Integer.parseInt(line.substring(index, index + 2), 16);
+            }
+
+            Assert.assertEquals("Invalid checksum in " + line, 0, sum & 0xff);
+        }
+    }
+
+
+    /**
+     * Unit test {@link HexWriter#close()}
+     */
+    @Test(expected = IllegalStateException.class)
+    public void test_noImage() {
+        new HexWriter(destination, Rom.ROM_1, 16, 4).close();
+    }
+
+
+    /**
+     * Unit test {@link HexWriter#HexWriter(File, Rom, int, int)}
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void test_invalidRecordLength() {
+        new HexWriter(destination, Rom.ROM_1, 256, 4);
+    }
+
+
+    @Nonnull
+    private ByteBuffer image(@Nonnull int... data) {
+        ByteBuffer image = ByteBuffer.allocate(data.length);
+
+        for (int address = 0; address < data.length; address++) {
+            image.put(address, (byte) data[address]);
+        }
+
+        return image;
+    }
+
+
+    @Nonnull
+    private List<String> write(@Nonnull ByteBuffer image, int recordLength) throws IOException {
+        HexWriter writer = new HexWriter(destination, Rom.ROM_1, recordLength, image.capacity());
+
+        writer.initialise();
+        writer.applyImage(Rom.ROM_2, ByteBuffer.allocate(image.capacity()));      // Ignored - not this ROM
+        writer.applyImage(Rom.ROM_1, image.asReadOnlyBuffer());
+        writer.close();
+
+        return Files.readAllLines(destination.toPath());
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.tymefly.eeprom.builder.project.code;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.annotation.Nonnull;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link PatternIndex}
+ */
+public class PatternIndexTest {
+    private static final int WIDTH = 12;
+
+
+    /**
+     * Unit test {@link PatternIndex#findOverlaps()}
+     */
+    @Test
+    public void test_empty() {
+        Assert.assertTrue("Unexpected overlaps", new PatternIndex(WIDTH).findOverlaps().isEmpty());
+    }
+
+
+    /**
+     * Unit test {@link PatternIndex#findOverlaps()}
+     */
+    @Test
+    public void test_disjoint() {
+        List<PatternIndex.Overlap> overlaps = new PatternIndex(WIDTH)
+            .add(1, 0x0f, 0x01)
+            .add(2, 0x0f, 0x02)
+            .add(3, 0x03, 0x03)
+            .findOverlaps();
+
+        Assert.assertTrue("Unexpected overlaps", overlaps.isEmpty());
+    }
+
+
+    /**
+     * Unit test {@link PatternIndex#findOverlaps()}
+     */
+    @Test
+    public void test_overlap() {
+        List<PatternIndex.Overlap> overlaps = new PatternIndex(WIDTH)
+            .add(7, 0x0f, 0x05)
+            .add(3, 0x30, 0x10)
+            .findOverlaps();
+
+        Assert.assertEquals("Unexpected count", 1, overlaps.size());
+        Assert.assertEquals("Unexpected first", 7, overlaps.get(0).getFirst());
+        Assert.assertEquals("Unexpected second", 3, overlaps.get(0).getSecond());
+        Assert.assertEquals("Unexpected input", 0x15, overlaps.get(0).getInput());
+    }
+
+
+    /**
+     * Unit test {@link PatternIndex#findOverlaps()}
+     */
+    @Test
+    public void test_valueOutsideMask() {
+        List<PatternIndex.Overlap> overlaps = new PatternIndex(WIDTH)
+            .add(1, 0x01, 0xff)
+            .add(2, 0x02, 0x00)
+            .findOverlaps();
+
+        Assert.assertEquals("Unexpected count", 1, overlaps.size());
+        Assert.assertEquals("Unexpected input", 0x01, overlaps.get(0).getInput());
+    }
+
+
+    /**
+     * Unit test {@link PatternIndex#findOverlaps()}
+     */
+    @Test
+    public void test_bitsOutsideWidth() {
+        List<PatternIndex.Overlap> overlaps = new PatternIndex(4)
+            .add(1, 0x11, 0x11)
+            .add(2, 0x11, 0x01)
+            .findOverlaps();
+
+        Assert.assertEquals("Unexpected count", 1, overlaps.size());
+    }
+
+
+    /**
+     * Unit test {@link PatternIndex#findOverlaps()}. The index is compared against a direct comparison of every pair
+     * of patterns, with enough patterns that the index is partitioned
+     */
+    @Test
+    public void test_matchesBruteForce() {
+        Random random = new Random(0x5eed);
+
+        for (int round = 0; round < 50; round++) {
+            int count = 1 + random.nextInt(200);
+            long[] masks = new long[count];
+            long[] values = new long[count];
+            PatternIndex index = new PatternIndex(WIDTH);
+
+            for (int i = 0; i < count; i++) {
+                masks[i] = random.nextInt(1 << WIDTH) | random.nextInt(1 << WIDTH);
+                values[i] = random.nextInt(1 << WIDTH);
+                index.add(i * 10, masks[i], values[i]);
+            }
+
+            Assert.assertEquals("Unexpected overlaps in round " + round,
+                bruteForce(masks, values),
+                describe(index.findOverlaps()));
+        }
+    }
+
+
+    @Nonnull
+    private List<String> bruteForce(@Nonnull long[] masks, @Nonnull long[] values) {
+        List<String> expected = new ArrayList<>();
+
+        for (int first = 0; first < masks.length; first++) {
+            for (int second = first + 1; second < masks.length; second++) {
+                long common = masks[first] & masks[second];
+
+                if (((values[first] ^ values[second]) & common) == 0) {
+                    long input = (values[first] & masks[first]) | (values[second] & masks[second]);
+
+                    expected.add((first * 10) + ":" + (second * 10) + ":" + input);
+                }
+            }
+        }
+
+        return expected;
+    }
+
+
+    @Nonnull
+    private List<String> describe(@Nonnull List<PatternIndex.Overlap> overlaps) {
+        List<String> actual = new ArrayList<>();
+
+        for (var overlap : overlaps) {
+            actual.add(overlap.getFirst() + ":" + overlap.getSecond() + ":" + overlap.getInput());
+        }
+
+        return actual;
+    }
+}